@@ -1,7 +1,11 @@
+import org.springframework.boot.gradle.tasks.aot.ProcessAot
+
 plugins {
 	java
 	id("org.springframework.boot") version "3.5.7"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.3"
+	id("org.graalvm.buildtools.native") version "0.10.6" apply false
 }
 
 group = "com.seriousemployee"
@@ -18,9 +22,13 @@ repositories {
 	mavenCentral()
 }
 
+// Load generator for ./gradlew loadTest, kept out of the application jar
+val loadtest by sourceSets.creating
+
 dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-actuator")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+	implementation("org.hibernate.orm:hibernate-micrometer")
 	implementation("org.springframework.boot:spring-boot-starter-web")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-security")
@@ -31,12 +39,68 @@ dependencies {
 	implementation("io.jsonwebtoken:jjwt-api:0.13.0")
 	developmentOnly("org.springframework.boot:spring-boot-devtools")
 	runtimeOnly("org.postgresql:postgresql")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 	runtimeOnly("io.jsonwebtoken:jjwt-impl:0.13.0")
 	runtimeOnly("io.jsonwebtoken:jjwt-jackson:0.13.0")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+	jmh("io.jsonwebtoken:jjwt-impl:0.13.0")
+	jmh("io.jsonwebtoken:jjwt-jackson:0.13.0")
+	"loadtestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
+	"loadtestImplementation"("com.fasterxml.jackson.core:jackson-databind")
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+// ./gradlew jmh [-PjmhIncludes=JwtServiceBenchmark]
+// Results are written as JSON so runs before and after a change can be compared.
+jmh {
+	jmhVersion = "1.37"
+	fork = 1
+	warmupIterations = 3
+	iterations = 5
+	resultFormat = "JSON"
+	resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+	providers.gradleProperty("jmhIncludes").orNull?.let { includes = listOf(it) }
+}
+
+// ./gradlew loadTest [-Ploadtest.scenario=mixed|login|list|view|admin] [-Ploadtest.duration=60] [-Ploadtest.rate.list=200]
+// Starts the boot jar against the database from .env (or -Ploadtest.url=... for a running instance), drives open-model
+// traffic and writes per-endpoint latency percentiles, throughput and error rates to build/reports/loadtest/results.json.
+val loadTest by tasks.registering(JavaExec::class) {
+	group = "verification"
+	description = "Drives scripted traffic against the application and reports latency percentiles per endpoint"
+	dependsOn(tasks.bootJar)
+	classpath = loadtest.runtimeClasspath
+	mainClass = "com.seriousemployee.backendtask.loadtest.LoadTest"
+	systemProperty("loadtest.jar", tasks.bootJar.get().archiveFile.get().asFile.path)
+	providers.gradlePropertiesPrefixedBy("loadtest.").get().forEach { (key, value) -> systemProperty(key, value) }
+}
+
+// ./gradlew bootJar -Paot
+// Adds Spring AOT bean definitions to the jar; start it with -Dspring.aot.enabled=true. Conditions (profiles,
+// @ConditionalOnProperty toggles) are evaluated once here, with the prod profile, instead of at every start.
+if (providers.gradleProperty("aot").isPresent) {
+	apply(plugin = "org.graalvm.buildtools.native")
+	tasks.named<ProcessAot>("processAot") {
+		args("--spring.profiles.active=prod")
+	}
+}
+
+// ./gradlew cdsArchive [-Paot]
+// Extracts the boot jar into build/cds and records an AppCDS archive from a training run.
+// Start it with: java -XX:SharedArchiveFile=build/cds/app.jsa -jar build/cds/app.jar
+val cdsArchive by tasks.registering(Exec::class) {
+	val bootJar = tasks.bootJar.flatMap { it.archiveFile }
+	val destination = layout.buildDirectory.dir("cds")
+	dependsOn(tasks.bootJar)
+	inputs.file(bootJar)
+	outputs.dir(destination)
+	doFirst { delete(destination) }
+	if (providers.gradleProperty("aot").isPresent) {
+		environment("TRAINING_OPTS", "-Dspring.aot.enabled=true")
+	}
+	commandLine("sh", "scripts/cds-training.sh", bootJar.get().asFile.path, destination.get().asFile.path)
+}
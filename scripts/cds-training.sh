@@ -0,0 +1,30 @@
+#!/usr/bin/env sh
+# Extracts a Spring Boot jar into <destination> and records an AppCDS archive (app.jsa) next to the extracted app.jar.
+# The training run stops as soon as the application context is refreshed and never opens a database connection,
+# so it needs no database; the placeholders below only have to resolve.
+# An archive is only accepted by the JVM that recorded it, which is why the production image runs this on its own JRE.
+#
+#   scripts/cds-training.sh <boot jar> <destination>
+#   TRAINING_OPTS="-Dspring.aot.enabled=true" scripts/cds-training.sh ...   # when the app will run with AOT
+set -eu
+
+JAR="$1"
+DEST="$2"
+
+mkdir -p "${DEST}"
+java -Djarmode=tools -jar "${JAR}" extract --force --destination "${DEST}"
+# extract keeps the original file name; the start command expects app.jar
+for extracted in "${DEST}"/*.jar; do
+  [ "${extracted}" = "${DEST}/app.jar" ] || mv "${extracted}" "${DEST}/app.jar"
+done
+
+cd "${DEST}"
+SPRING_DATASOURCE_URL="jdbc:postgresql://localhost:5432/cds-training" \
+DB_USER=training DB_PASSWORD=training \
+JWT_SECRET_KEY="Y2RzLXRyYWluaW5nLWtleS1jZHMtdHJhaW5pbmcta2V5LWNkcy10cmFpbmluZw==" \
+ADMIN_USERNAME=training@localhost ADMIN_PASSWORD=training \
+java -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh ${TRAINING_OPTS:-} -jar app.jar \
+  --spring.flyway.enabled=false \
+  --spring.jpa.hibernate.ddl-auto=none \
+  --spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false \
+  --security.password.bcrypt-strength=10
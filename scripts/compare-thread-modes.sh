@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Runs the same read-heavy load against the app in platform-thread and virtual-thread mode.
+# Requires: a built jar (./gradlew bootJar), a reachable database configured via .env or the environment,
+# and the `hey` load generator (https://github.com/rakyll/hey).
+#
+#   scripts/compare-thread-modes.sh [duration] [concurrency]
+set -euo pipefail
+
+DURATION="${1:-30s}"
+CONCURRENCY="${2:-400}"
+PORT=10030
+BASE_URL="http://localhost:${PORT}"
+JAR="$(ls build/libs/*-SNAPSHOT.jar | grep -v plain | head -n 1)"
+OUT_DIR="build/reports/thread-modes"
+mkdir -p "${OUT_DIR}"
+
+wait_until_up() {
+  for _ in $(seq 1 120); do
+    if curl -s -o /dev/null "${BASE_URL}/api/v1/auth/login"; then
+      return 0
+    fi
+    sleep 0.5
+  done
+  echo "Application did not start" >&2
+  return 1
+}
+
+login() {
+  curl -s -X POST "${BASE_URL}/api/v1/auth/login" \
+    -H "Content-Type: application/json" \
+    -d "{\"email\":\"${ADMIN_USERNAME}\",\"password\":\"${ADMIN_PASSWORD}\"}" \
+    | sed -n 's/.*"token":"\([^"]*\)".*/\1/p'
+}
+
+run_mode() {
+  local mode="$1" profile="$2"
+  echo "== ${mode} threads"
+  SPRING_PROFILES_ACTIVE="${profile}" java -jar "${JAR}" > "${OUT_DIR}/${mode}-app.log" 2>&1 &
+  local pid=$!
+  trap "kill ${pid} 2>/dev/null || true" EXIT
+
+  wait_until_up
+  local token
+  token="$(login)"
+
+  for endpoint in "/api/v1/employees/list?page=0&size=20" "/api/v1/employees/me"; do
+    local name
+    name="$(echo "${endpoint}" | sed 's#/api/v1/employees/##; s#[?&=]#_#g')"
+    hey -z "${DURATION}" -c "${CONCURRENCY}" -H "Authorization: Bearer ${token}" \
+      "${BASE_URL}${endpoint}" > "${OUT_DIR}/${mode}-${name}.txt"
+    grep -E "Requests/sec|99% in|95% in|50% in" "${OUT_DIR}/${mode}-${name}.txt" | sed "s#^#  ${name}: #"
+  done
+
+  kill "${pid}"
+  wait "${pid}" 2>/dev/null || true
+  trap - EXIT
+}
+
+run_mode platform ""
+run_mode virtual virtual
+grep -h "Virtual thread pinned" "${OUT_DIR}/virtual-app.log" | head -n 20 || true
+echo "Full reports in ${OUT_DIR}"
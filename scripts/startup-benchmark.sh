@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request, from JVM launch until the app answers its first HTTP request, for a plain jar,
+# Spring AOT, an AppCDS archive, and AOT with CDS.
+# Requires: a jar built with AOT (./gradlew bootJar -Paot) and a reachable database configured via .env or the
+# environment. CDS archives are recorded into build/startup before the runs.
+#
+#   scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT=10030
+URL="http://localhost:${PORT}/api/v1/auth/login"
+JAR="$(ls build/libs/*-SNAPSHOT.jar | grep -v plain | head -n 1)"
+WORK_DIR="build/startup"
+OUT_DIR="build/reports/startup"
+mkdir -p "${WORK_DIR}" "${OUT_DIR}"
+
+echo "Recording CDS archives"
+scripts/cds-training.sh "${JAR}" "${WORK_DIR}/cds" > "${OUT_DIR}/cds-training.log" 2>&1
+TRAINING_OPTS="-Dspring.aot.enabled=true" scripts/cds-training.sh "${JAR}" "${WORK_DIR}/aot-cds" > "${OUT_DIR}/aot-cds-training.log" 2>&1
+
+now_ms() {
+  date +%s%3N
+}
+
+# Prints milliseconds until the first HTTP response of any status
+first_request_ms() {
+  local log="$1"; shift
+  local start pid
+  start="$(now_ms)"
+  "$@" > "${log}" 2>&1 &
+  pid=$!
+  trap "kill ${pid} 2>/dev/null || true" EXIT
+
+  while [ "$(curl -s -o /dev/null -w '%{http_code}' "${URL}" || true)" = "000" ]; do
+    if ! kill -0 "${pid}" 2>/dev/null; then
+      echo "Application exited, see ${log}" >&2
+      return 1
+    fi
+    sleep 0.02
+  done
+  echo $(( $(now_ms) - start ))
+
+  kill "${pid}"
+  wait "${pid}" 2>/dev/null || true
+  trap - EXIT
+}
+
+run_mode() {
+  local mode="$1"; shift
+  local times=()
+  for run in $(seq 1 "${RUNS}"); do
+    times+=("$(first_request_ms "${OUT_DIR}/${mode}-${run}.log" "$@")")
+  done
+  local sorted
+  sorted="$(printf '%s\n' "${times[@]}" | sort -n)"
+  local median min
+  median="$(echo "${sorted}" | sed -n "$(( (RUNS + 1) / 2 ))p")"
+  min="$(echo "${sorted}" | head -n 1)"
+  printf '%-8s median %6s ms   min %6s ms   runs: %s\n' "${mode}" "${median}" "${min}" "$(echo ${times[*]})"
+  RESULTS+=("{\"mode\":\"${mode}\",\"medianMs\":${median},\"minMs\":${min},\"runsMs\":[$(IFS=,; echo "${times[*]}")]}")
+}
+
+RESULTS=()
+run_mode jar     java -jar "${JAR}"
+run_mode aot     java -Dspring.aot.enabled=true -jar "${JAR}"
+run_mode cds     java -XX:SharedArchiveFile="${WORK_DIR}/cds/app.jsa" -jar "${WORK_DIR}/cds/app.jar"
+run_mode aot-cds java -XX:SharedArchiveFile="${WORK_DIR}/aot-cds/app.jsa" -Dspring.aot.enabled=true -jar "${WORK_DIR}/aot-cds/app.jar"
+
+(IFS=,; echo "[${RESULTS[*]}]") > "${OUT_DIR}/results.json"
+echo "Results in ${OUT_DIR}/results.json"
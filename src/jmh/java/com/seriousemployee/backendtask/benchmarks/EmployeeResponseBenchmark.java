@@ -0,0 +1,65 @@
+package com.seriousemployee.backendtask.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seriousemployee.backendtask.dto.GetEmployeePageResponse;
+import com.seriousemployee.backendtask.dto.GetEmployeeResponse;
+import com.seriousemployee.backendtask.entities.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeResponseBenchmark {
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private Page<Employee> page;
+    private GetEmployeePageResponse pageResponse;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        // id and createdAt are normally filled in by Hibernate
+        Field id = Employee.class.getDeclaredField("id");
+        Field createdAt = Employee.class.getDeclaredField("createdAt");
+        id.setAccessible(true);
+        createdAt.setAccessible(true);
+
+        List<Employee> employees = new ArrayList<>(pageSize);
+        LocalDateTime joined = LocalDateTime.of(2025, 1, 1, 9, 0);
+        for (int i = 0; i < pageSize; i++) {
+            Employee employee = new Employee("Employee Number " + i, "employee" + i + "@company.com", "$2a$10$hash", "USER");
+            id.set(employee, (long) i + 1);
+            createdAt.set(employee, joined.plusMinutes(i));
+            employees.add(employee);
+        }
+
+        page = new PageImpl<>(employees, PageRequest.of(3, pageSize), 10_000);
+        objectMapper = new ObjectMapper();
+        pageResponse = map();
+    }
+
+    @Benchmark
+    public GetEmployeePageResponse map() {
+        return GetEmployeePageResponse.fromPage(page.map(GetEmployeeResponse::fromEntity));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(pageResponse);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(map());
+    }
+}
@@ -0,0 +1,40 @@
+package com.seriousemployee.backendtask.benchmarks;
+
+import com.seriousemployee.backendtask.entities.Employee;
+import com.seriousemployee.backendtask.entities.EmployeeSpecification;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmployeeSpecificationBenchmark {
+    // Empty string stands for "filter not set"
+    @Param({"", "ADMIN"})
+    public String role;
+
+    @Param({"", "2025-06-30"})
+    public String before;
+
+    @Param({"", "2025-01-01"})
+    public String after;
+
+    private String roleFilter;
+    private LocalDate beforeFilter;
+    private LocalDate afterFilter;
+
+    @Setup
+    public void setup() {
+        roleFilter = role.isEmpty() ? null : role;
+        beforeFilter = before.isEmpty() ? null : LocalDate.parse(before);
+        afterFilter = after.isEmpty() ? null : LocalDate.parse(after);
+    }
+
+    @Benchmark
+    public Specification<Employee> build() {
+        return EmployeeSpecification.build(roleFilter, beforeFilter, afterFilter);
+    }
+}
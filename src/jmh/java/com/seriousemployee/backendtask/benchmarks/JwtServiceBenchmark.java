@@ -0,0 +1,72 @@
+package com.seriousemployee.backendtask.benchmarks;
+
+import com.seriousemployee.backendtask.security.EmployeeDetails;
+import com.seriousemployee.backendtask.security.JwtKeyRing;
+import com.seriousemployee.backendtask.services.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+    private JwtService jwtService;
+    private JwtService uncachedJwtService;
+    private JwtService uncachedEd25519JwtService;
+    private EmployeeDetails employeeDetails;
+    private String token;
+    private String ed25519Token;
+
+    @Setup
+    public void setup() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        String secretKey = Base64.getEncoder().encodeToString(secret);
+
+        jwtService = new JwtService(JwtKeyRing.hmac(secretKey, 3600000), 3600000, 10000, new SimpleMeterRegistry());
+        uncachedJwtService = new JwtService(JwtKeyRing.hmac(secretKey, 3600000), 3600000, 0, new SimpleMeterRegistry());
+        uncachedEd25519JwtService = new JwtService(JwtKeyRing.generated(secretKey, 3600000, "EdDSA"), 3600000, 0, new SimpleMeterRegistry());
+        employeeDetails = new EmployeeDetails(1L, "john.doe@company.com", "USER", 0, 0);
+        token = jwtService.generateToken(employeeDetails);
+        ed25519Token = uncachedEd25519JwtService.generateToken(employeeDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(employeeDetails);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, employeeDetails);
+    }
+
+    @Benchmark
+    public String extractUsernameUncached() {
+        return uncachedJwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValidUncached() {
+        return uncachedJwtService.isTokenValid(token, employeeDetails);
+    }
+
+    @Benchmark
+    public String generateTokenEd25519() {
+        return uncachedEd25519JwtService.generateToken(employeeDetails);
+    }
+
+    @Benchmark
+    public String extractUsernameEd25519Uncached() {
+        return uncachedEd25519JwtService.extractUsername(ed25519Token);
+    }
+}
@@ -0,0 +1,35 @@
+package com.seriousemployee.backendtask.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class PasswordEncoderBenchmark {
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("SecurePassword123");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("SecurePassword123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("SecurePassword123", hash);
+    }
+}
@@ -0,0 +1,152 @@
+package com.seriousemployee.backendtask.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Thin HTTP client over the API. One {@link HttpClient} is shared by every request; it runs on virtual threads.
+ */
+final class ApiClient {
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final ObjectMapper json = new ObjectMapper();
+
+    ApiClient(String baseUrl, Duration timeout, ExecutorService executor) {
+        this.http = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(timeout)
+                .build();
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+    }
+
+    HttpRequest.Builder request(String path, Session session) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+        if (session != null) {
+            builder.header("Authorization", "Bearer " + session.token());
+        }
+        return builder;
+    }
+
+    HttpRequest.Builder jsonRequest(String method, String path, Session session, Object body) {
+        return request(path, session)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(write(body)));
+    }
+
+    HttpResponse<Void> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    /**
+     * Sends a setup request and returns its JSON body, failing on any status other than 2xx.
+     */
+    JsonNode call(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.method() + " " + request.uri().getPath() + " returned "
+                    + response.statusCode() + ": " + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return response.body().length == 0 ? json.nullNode() : json.readTree(response.body());
+    }
+
+    Session login(String email, String password) throws IOException, InterruptedException {
+        Session session = new Session(this, email, password);
+        session.login();
+        return session;
+    }
+
+    byte[] write(Object body) {
+        try {
+            return json.writeValueAsBytes(body);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Logged-in employee. Access tokens are short-lived, so the token is refreshed once half its lifetime has passed,
+     * or right away once the server rejected it. A failed refresh falls back to logging in again.
+     */
+    static final class Session {
+        private final ApiClient client;
+        private final String email;
+        private final String password;
+        private String token;
+        private String refreshToken;
+        private long renewAtNanos;
+
+        private Session(ApiClient client, String email, String password) {
+            this.client = client;
+            this.email = email;
+            this.password = password;
+        }
+
+        synchronized String token() {
+            if (System.nanoTime() >= renewAtNanos) {
+                try {
+                    refresh();
+                }
+                catch (IOException | RuntimeException e) {
+                    login();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+            return token;
+        }
+
+        /**
+         * Renews on the next {@link #token()} call, unless the rejected token has already been replaced.
+         */
+        synchronized void rejected(String rejectedToken) {
+            if (rejectedToken.equals(token)) {
+                renewAtNanos = System.nanoTime();
+            }
+        }
+
+        private synchronized void login() {
+            try {
+                accept(client.call(client.jsonRequest("POST", "/api/v1/auth/login", null,
+                        Map.of("email", email, "password", password)).build()));
+            }
+            catch (IOException e) {
+                throw new IllegalStateException("Login failed for " + email, e);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void refresh() throws IOException, InterruptedException {
+            accept(client.call(client.jsonRequest("POST", "/api/v1/auth/refresh", null,
+                    Map.of("refreshToken", refreshToken)).build()));
+        }
+
+        private void accept(JsonNode response) {
+            token = response.get("token").asText();
+            refreshToken = response.get("refreshToken").asText();
+            renewAtNanos = System.nanoTime() + Duration.ofMillis(response.get("tokenExpiresIn").asLong() / 2).toNanos();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.seriousemployee.backendtask.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application under test, started from the boot jar on free ports. The database is whatever the app would use
+ * with {@code bootRun}: {@code .env} in the working directory, or the environment. Login and register rate limits are
+ * switched off, so storms measure hashing rather than the limiter.
+ */
+final class AppProcess implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+    private final int port;
+
+    private AppProcess(Process process, int port) {
+        this.process = process;
+        this.port = port;
+    }
+
+    static AppProcess start(Path jar, Path log) throws IOException, InterruptedException {
+        int port = freePort();
+        int managementPort = freePort();
+        String java = ProcessHandle.current().info().command().orElse("java");
+
+        Files.createDirectories(log.getParent());
+        Process process = new ProcessBuilder(List.of(
+                java, "-jar", jar.toString(),
+                "--server.port=" + port,
+                "--management.server.port=" + managementPort,
+                "--security.rate-limit.enabled=false"))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        AppProcess app = new AppProcess(process, port);
+        app.awaitHealthy(URI.create("http://127.0.0.1:" + managementPort + "/actuator/health"), log);
+        return app;
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + port;
+    }
+
+    private void awaitHealthy(URI health, Path log) throws InterruptedException, IOException {
+        HttpClient client = HttpClient.newHttpClient();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited during startup, see " + log);
+            }
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(health).build(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            }
+            catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(200);
+        }
+        close();
+        throw new IllegalStateException("Application did not become healthy within " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.seriousemployee.backendtask.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcomes of one endpoint. Latency runs from the moment the request was scheduled to start, not from
+ * when it was sent, so a server that falls behind shows up as latency instead of as a lower request rate.
+ */
+final class EndpointStats {
+    private static final long MAX_TRACKED_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Recorder latency = new Recorder(MAX_TRACKED_MICROS, 3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    void record(long scheduledNanos, String outcome, boolean error) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledNanos);
+        latency.recordValue(Math.min(Math.max(micros, 0), MAX_TRACKED_MICROS));
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Drops everything recorded so far, at the end of the warmup.
+     */
+    void reset() {
+        latency.reset();
+        requests.reset();
+        errors.reset();
+        outcomes.clear();
+    }
+
+    Snapshot snapshot(double seconds) {
+        Histogram histogram = latency.getIntervalHistogram();
+        long count = requests.sum();
+        long failed = errors.sum();
+        Map<String, Long> byOutcome = new TreeMap<>();
+        outcomes.forEach((outcome, adder) -> byOutcome.put(outcome, adder.sum()));
+
+        Map<String, Double> percentiles = new TreeMap<>();
+        percentiles.put("p50", millis(histogram.getValueAtPercentile(50)));
+        percentiles.put("p90", millis(histogram.getValueAtPercentile(90)));
+        percentiles.put("p99", millis(histogram.getValueAtPercentile(99)));
+        percentiles.put("p99_9", millis(histogram.getValueAtPercentile(99.9)));
+        percentiles.put("max", millis(histogram.getMaxValue()));
+        percentiles.put("mean", histogram.getMean() / 1000.0);
+
+        return new Snapshot(count, failed, count == 0 ? 0 : (double) failed / count, count / seconds, byOutcome, percentiles);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    record Snapshot(long requests, long errors, double errorRate, double throughput,
+                    Map<String, Long> outcomes, Map<String, Double> latencyMs) { }
+}
@@ -0,0 +1,141 @@
+package com.seriousemployee.backendtask.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Employees created for one run: an imported population to log in as, look up and promote, and a separate pool
+ * that the delete traffic consumes. Emails carry a run id, so runs against the same database do not collide.
+ */
+final class Fixtures {
+    private static final int PARALLEL_LOOKUPS = 32;
+    private static final long SESSION_CHECK_MILLIS = 1000;
+
+    final ApiClient.Session admin;
+    final ApiClient.Session reader;
+    final List<String> emails;
+    final List<Long> ids;
+    final ConcurrentLinkedQueue<Long> deletable;
+
+    private Fixtures(ApiClient.Session admin, ApiClient.Session reader, List<String> emails, List<Long> ids, List<Long> deletable) {
+        this.admin = admin;
+        this.reader = reader;
+        this.emails = emails;
+        this.ids = ids;
+        this.deletable = new ConcurrentLinkedQueue<>(deletable);
+    }
+
+    static Fixtures create(ApiClient client, LoadTestConfig config, ExecutorService executor) throws Exception {
+        if (config.adminEmail() == null || config.adminPassword() == null) {
+            throw new IllegalStateException("Set ADMIN_USERNAME and ADMIN_PASSWORD, in the environment or .env");
+        }
+        if (config.users() < 2) {
+            throw new IllegalArgumentException("loadtest.users must be at least 2, one of them only reads");
+        }
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        ApiClient.Session admin = client.login(config.adminEmail(), config.adminPassword());
+
+        List<String> emails = emails("user", runId, config.users());
+        // Every delete needs its own employee; size the pool for the whole run
+        long deletes = (long) Math.ceil(config.rate("admin") * (config.warmup().toSeconds() + config.duration().toSeconds()));
+        List<String> deletableEmails = emails("delete", runId, (int) deletes);
+
+        importEmployees(client, admin, emails);
+        importEmployees(client, admin, deletableEmails);
+
+        List<Long> ids = resolveIds(client, admin, emails, executor);
+        List<Long> deletableIds = resolveIds(client, admin, deletableEmails, executor);
+        ApiClient.Session reader = client.login(emails.get(0), LoadTestConfig.PASSWORD);
+        return new Fixtures(admin, reader, emails, ids, deletableIds);
+    }
+
+    /**
+     * Refreshes the sessions through {@code /api/v1/auth/refresh} as they come due, so arrivals rarely wait for a
+     * renewal and runs may outlast the access token lifetime. Returns when interrupted.
+     */
+    void keepSessionsFresh() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                admin.token();
+                reader.token();
+                Thread.sleep(SESSION_CHECK_MILLIS);
+            }
+            catch (InterruptedException e) {
+                return;
+            }
+            catch (RuntimeException e) {
+                System.err.println("Renewing a session failed, retrying: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deletes what is left of this run's employees.
+     */
+    void cleanup(ApiClient client) throws IOException, InterruptedException {
+        List<Long> remaining = new ArrayList<>(ids);
+        remaining.addAll(deletable);
+        for (int from = 0; from < remaining.size(); from += 10_000) {
+            List<Long> chunk = remaining.subList(from, Math.min(remaining.size(), from + 10_000));
+            client.call(client.jsonRequest("POST", "/api/v1/employees/bulk/delete", admin, Map.of("ids", chunk)).build());
+        }
+    }
+
+    private static List<String> emails(String kind, String runId, int count) {
+        List<String> emails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            emails.add("loadtest-" + runId + "-" + kind + "-" + i + "@example.com");
+        }
+        return emails;
+    }
+
+    private static void importEmployees(ApiClient client, ApiClient.Session admin, List<String> emails) throws IOException, InterruptedException {
+        if (emails.isEmpty()) {
+            return;
+        }
+        StringBuilder ndjson = new StringBuilder();
+        for (String email : emails) {
+            ndjson.append(new String(client.write(Map.of("name", "Load Test", "email", email, "password", LoadTestConfig.PASSWORD))))
+                    .append('\n');
+        }
+        JsonNode result = client.call(client.request("/api/v1/employees/import", admin)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                .build());
+        if (result.get("imported").asLong() != emails.size()) {
+            throw new IllegalStateException("Imported " + result.get("imported") + " of " + emails.size() + " employees: " + result.get("errors"));
+        }
+    }
+
+    private static List<Long> resolveIds(ApiClient client, ApiClient.Session admin, List<String> emails, ExecutorService executor) throws Exception {
+        Semaphore permits = new Semaphore(PARALLEL_LOOKUPS);
+        List<Future<Long>> lookups = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            lookups.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return client.call(client.request("/api/v1/employees/view/" + ApiClient.encode(email), admin).GET().build())
+                            .get("id").asLong();
+                }
+                finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        List<Long> ids = new ArrayList<>(emails.size());
+        for (Future<Long> lookup : lookups) {
+            ids.add(lookup.get());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,107 @@
+package com.seriousemployee.backendtask.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Drives production-like traffic against the API and reports latency percentiles, throughput and error rates per
+ * endpoint. Starts the boot jar itself unless {@code loadtest.url} points at a running instance.
+ * <p>
+ * {@code ./gradlew loadTest [-Ploadtest.scenario=mixed|login|list|view|admin] [-Ploadtest.duration=60]}
+ */
+public final class LoadTest {
+    private LoadTest() { }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        AppProcess app = null;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String url = config.url();
+            if (url == null) {
+                Path log = config.output().resolveSibling("app.log");
+                System.out.println("Starting " + config.jar() + ", log in " + log);
+                app = AppProcess.start(config.jar(), log);
+                url = app.url();
+            }
+
+            ApiClient client = new ApiClient(url, config.timeout(), executor);
+            System.out.println("Creating " + config.users() + " employees");
+            Fixtures fixtures = Fixtures.create(client, config, executor);
+            List<Scenarios.Scenario> scenarios = Scenarios.create(client, fixtures, config);
+
+            System.out.printf("Running %s against %s: %ds warmup, %ds measured%n",
+                    config.scenario(), url, config.warmup().toSeconds(), config.duration().toSeconds());
+            OpenModelDriver driver = new OpenModelDriver(client, executor, config.maxInFlight());
+            Thread keepAlive = Thread.ofVirtual().name("session-keep-alive").start(fixtures::keepSessionsFresh);
+            Instant startedAt = Instant.now();
+            try {
+                driver.run(scenarios, config.warmup().toNanos(), config.duration().toNanos());
+                driver.awaitInFlight(config.timeout().toNanos());
+            }
+            finally {
+                keepAlive.interrupt();
+            }
+
+            Map<String, Object> report = report(config, url, startedAt, scenarios, driver);
+            write(report, config.output());
+            print(report);
+
+            if (config.cleanup()) {
+                fixtures.cleanup(client);
+            }
+        }
+        finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private static Map<String, Object> report(LoadTestConfig config, String url, Instant startedAt,
+                                              List<Scenarios.Scenario> scenarios, OpenModelDriver driver) {
+        double seconds = config.duration().toNanos() / 1e9;
+        Map<String, Double> rates = new LinkedHashMap<>();
+        scenarios.forEach(scenario -> rates.put(scenario.name(), scenario.rate()));
+
+        Map<String, EndpointStats.Snapshot> endpoints = new TreeMap<>();
+        driver.stats().forEach((endpoint, stats) -> endpoints.put(endpoint, stats.snapshot(seconds)));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", config.scenario());
+        report.put("target", url);
+        report.put("startedAt", startedAt.toString());
+        report.put("warmupSeconds", config.warmup().toSeconds());
+        report.put("durationSeconds", config.duration().toSeconds());
+        report.put("arrivalRates", rates);
+        report.put("employees", config.users());
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static void write(Map<String, Object> report, Path output) throws Exception {
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+        System.out.println("Results written to " + output);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> report) {
+        System.out.printf("%n%-40s %9s %8s %8s %9s %9s %9s %9s%n",
+                "endpoint", "req/s", "errors", "err %", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        ((Map<String, EndpointStats.Snapshot>) report.get("endpoints")).forEach((endpoint, stats) ->
+                System.out.printf("%-40s %9.1f %8d %8.2f %9.2f %9.2f %9.2f %9.2f%n",
+                        endpoint, stats.throughput(), stats.errors(), stats.errorRate() * 100,
+                        stats.latencyMs().get("p50"), stats.latencyMs().get("p99"),
+                        stats.latencyMs().get("p99_9"), stats.latencyMs().get("max")));
+    }
+}
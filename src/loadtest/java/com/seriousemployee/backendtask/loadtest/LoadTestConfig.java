@@ -0,0 +1,88 @@
+package com.seriousemployee.backendtask.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings, read from {@code loadtest.*} system properties ({@code ./gradlew loadTest -Ploadtest.duration=120}).
+ * Super admin credentials come from {@code ADMIN_USERNAME} and {@code ADMIN_PASSWORD}, in the environment or {@code .env}.
+ */
+record LoadTestConfig(
+        String url,
+        Path jar,
+        String scenario,
+        Duration warmup,
+        Duration duration,
+        Map<String, Double> rates,
+        int users,
+        int maxInFlight,
+        Duration timeout,
+        boolean cleanup,
+        Path output,
+        String adminEmail,
+        String adminPassword
+) {
+    static final String PASSWORD = "LoadTest-Password1";
+
+    static LoadTestConfig fromSystemProperties() throws IOException {
+        Map<String, String> env = new HashMap<>(readDotEnv(Path.of(".env")));
+        env.putAll(System.getenv());
+
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("login", rate("login", 20));
+        rates.put("list", rate("list", 200));
+        rates.put("view", rate("view", 200));
+        rates.put("admin", rate("admin", 10));
+
+        String scenario = System.getProperty("loadtest.scenario", "mixed");
+        if (!scenario.equals("mixed") && !rates.containsKey(scenario)) {
+            throw new IllegalArgumentException("Unknown scenario " + scenario + ", expected mixed, login, list, view or admin");
+        }
+
+        String jar = System.getProperty("loadtest.jar");
+        return new LoadTestConfig(
+                System.getProperty("loadtest.url"),
+                jar == null ? null : Path.of(jar),
+                scenario,
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 60)),
+                rates,
+                Integer.getInteger("loadtest.users", 500),
+                Integer.getInteger("loadtest.max-in-flight", 10_000),
+                Duration.ofMillis(Long.getLong("loadtest.timeout-ms", 5000)),
+                Boolean.parseBoolean(System.getProperty("loadtest.cleanup", "true")),
+                Path.of(System.getProperty("loadtest.output", "build/reports/loadtest/results.json")),
+                System.getProperty("loadtest.admin-email", env.get("ADMIN_USERNAME")),
+                System.getProperty("loadtest.admin-password", env.get("ADMIN_PASSWORD")));
+    }
+
+    /**
+     * Arrivals per second for a scenario, or 0 when the selected scenario does not include it.
+     */
+    double rate(String name) {
+        return scenario.equals("mixed") || scenario.equals(name) ? rates.get(name) : 0;
+    }
+
+    private static double rate(String name, double defaultRate) {
+        String value = System.getProperty("loadtest.rate." + name);
+        return value == null ? defaultRate : Double.parseDouble(value);
+    }
+
+    private static Map<String, String> readDotEnv(Path file) throws IOException {
+        Map<String, String> values = new HashMap<>();
+        if (!Files.exists(file)) {
+            return values;
+        }
+        for (String line : Files.readAllLines(file)) {
+            int separator = line.indexOf('=');
+            if (separator > 0 && !line.startsWith("#")) {
+                values.put(line.substring(0, separator).trim(), line.substring(separator + 1).trim().replaceAll("^\"|\"$", ""));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,135 @@
+package com.seriousemployee.backendtask.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests arrive on a Poisson schedule at a fixed mean rate, whether or not earlier ones have
+ * finished, as they do from independent users. Each arrival runs on its own virtual thread. A server that slows
+ * down therefore builds up concurrency and latency instead of quietly receiving fewer requests.
+ */
+final class OpenModelDriver {
+    private final ApiClient client;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    OpenModelDriver(ApiClient client, ExecutorService executor, int maxInFlight) {
+        this.client = client;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Runs every scenario for the warmup and then the measured duration. Results recorded during the warmup are discarded.
+     */
+    void run(List<Scenarios.Scenario> scenarios, long warmupNanos, long durationNanos) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+
+        List<Thread> schedulers = new ArrayList<>(scenarios.size());
+        for (Scenarios.Scenario scenario : scenarios) {
+            schedulers.add(Thread.ofPlatform().name("arrivals-" + scenario.name()).start(() -> schedule(scenario, start, end)));
+        }
+
+        LockSupport.parkNanos(measureFrom - System.nanoTime());
+        stats.values().forEach(EndpointStats::reset);
+
+        for (Thread scheduler : schedulers) {
+            scheduler.join();
+        }
+    }
+
+    Map<String, EndpointStats> stats() {
+        return stats;
+    }
+
+    private void schedule(Scenarios.Scenario scenario, long start, long end) {
+        SplittableRandom random = new SplittableRandom();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / scenario.rate();
+        long next = start;
+
+        while (true) {
+            // Exponential gaps give Poisson arrivals
+            next += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            if (next >= end) {
+                return;
+            }
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            long scheduled = next;
+            if (!inFlight.tryAcquire()) {
+                stats("client " + scenario.name()).record(scheduled, "client_saturated", true);
+                continue;
+            }
+            executor.execute(() -> {
+                try {
+                    fire(scenario, scheduled);
+                }
+                finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void fire(Scenarios.Scenario scenario, long scheduled) {
+        Scenarios.Operation operation;
+        try {
+            operation = scenario.next().get();
+        }
+        catch (RuntimeException e) {
+            stats("setup " + scenario.name()).record(scheduled, "setup_failed", true);
+            return;
+        }
+
+        EndpointStats endpoint = stats(operation.endpoint());
+        try {
+            HttpResponse<Void> response = client.send(operation.request());
+            int status = response.statusCode();
+            endpoint.record(scheduled, String.valueOf(status), status >= 400);
+            if (status == 401 && operation.session() != null) {
+                operation.request().headers().firstValue("Authorization")
+                        .ifPresent(header -> operation.session().rejected(header.substring("Bearer ".length())));
+            }
+        }
+        catch (HttpTimeoutException e) {
+            endpoint.record(scheduled, "timeout", true);
+        }
+        catch (IOException e) {
+            endpoint.record(scheduled, "io_error", true);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return stats.computeIfAbsent(endpoint, key -> new EndpointStats());
+    }
+
+    /**
+     * Waits for requests still in flight after the last arrival.
+     */
+    void awaitInFlight(long timeoutNanos) throws InterruptedException {
+        if (inFlight.tryAcquire(maxInFlight, timeoutNanos, TimeUnit.NANOSECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+    }
+}
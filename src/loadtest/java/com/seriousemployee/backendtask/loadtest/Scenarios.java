@@ -0,0 +1,86 @@
+package com.seriousemployee.backendtask.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * The traffic mixes. Each scenario produces the next request when an arrival is due; {@code mixed} runs all of them
+ * at once, each at its own rate.
+ */
+final class Scenarios {
+    private static final int PAGE_SIZE = 20;
+
+    private Scenarios() { }
+
+    /**
+     * One request to send. {@code session} is the employee it is sent as, if any.
+     */
+    record Operation(String endpoint, HttpRequest request, ApiClient.Session session) {
+        Operation(String endpoint, HttpRequest request) {
+            this(endpoint, request, null);
+        }
+    }
+
+    record Scenario(String name, double rate, Supplier<Operation> next) { }
+
+    static List<Scenario> create(ApiClient client, Fixtures fixtures, LoadTestConfig config) {
+        List<Scenario> scenarios = new ArrayList<>();
+        add(scenarios, "login", config, () -> loginStorm(client, fixtures));
+        add(scenarios, "list", config, () -> listPaging(client, fixtures));
+        add(scenarios, "view", config, () -> viewLookup(client, fixtures));
+        add(scenarios, "admin", config, () -> promoteOrDelete(client, fixtures));
+        return scenarios;
+    }
+
+    private static void add(List<Scenario> scenarios, String name, LoadTestConfig config, Supplier<Operation> next) {
+        if (config.rate(name) > 0) {
+            scenarios.add(new Scenario(name, config.rate(name), next));
+        }
+    }
+
+    private static Operation loginStorm(ApiClient client, Fixtures fixtures) {
+        String email = fixtures.emails.get(ThreadLocalRandom.current().nextInt(fixtures.emails.size()));
+        return new Operation("POST /api/v1/auth/login", client.jsonRequest("POST", "/api/v1/auth/login", null,
+                Map.of("email", email, "password", LoadTestConfig.PASSWORD)).build());
+    }
+
+    /**
+     * Pages are skewed towards the front, the way people browse a list.
+     */
+    private static Operation listPaging(ApiClient client, Fixtures fixtures) {
+        int pages = Math.max(1, fixtures.emails.size() / PAGE_SIZE);
+        double r = ThreadLocalRandom.current().nextDouble();
+        int page = (int) (pages * r * r);
+        return new Operation("GET /api/v1/employees/list",
+                client.request("/api/v1/employees/list?page=" + page + "&size=" + PAGE_SIZE, fixtures.reader).GET().build(),
+                fixtures.reader);
+    }
+
+    private static Operation viewLookup(ApiClient client, Fixtures fixtures) {
+        String email = fixtures.emails.get(ThreadLocalRandom.current().nextInt(fixtures.emails.size()));
+        return new Operation("GET /api/v1/employees/view/{email}",
+                client.request("/api/v1/employees/view/" + ApiClient.encode(email), fixtures.reader).GET().build(),
+                fixtures.reader);
+    }
+
+    /**
+     * Half promotions of random employees, half deletions from the pool set aside for them. The reader is never
+     * promoted, since that would revoke its token.
+     */
+    private static Operation promoteOrDelete(ApiClient client, Fixtures fixtures) {
+        Long deletable = ThreadLocalRandom.current().nextBoolean() ? fixtures.deletable.poll() : null;
+        if (deletable != null) {
+            return new Operation("DELETE /api/v1/employees/delete/{id}",
+                    client.request("/api/v1/employees/delete/" + deletable, fixtures.admin).DELETE().build(),
+                    fixtures.admin);
+        }
+        Long id = fixtures.ids.get(1 + ThreadLocalRandom.current().nextInt(fixtures.ids.size() - 1));
+        return new Operation("PUT /api/v1/employees/promote/{id}",
+                client.request("/api/v1/employees/promote/" + id, fixtures.admin).PUT(HttpRequest.BodyPublishers.noBody()).build(),
+                fixtures.admin);
+    }
+}
@@ -7,9 +7,11 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @SpringBootApplication
+@EnableScheduling
 public class BackendtaskApplication {
 
 	public static void main(String[] args) {
@@ -20,13 +22,13 @@ public class BackendtaskApplication {
 	public CommandLineRunner initSuperAdmin(EmployeeRepository repo, PasswordEncoder passwordEncoder, SuperAdminDTO superAdminDTO) {
 		return args -> {
 			String email = superAdminDTO.getUsername();
-			String password = passwordEncoder.encode(superAdminDTO.getPassword());
 
-			if (repo.findByEmail(email).isEmpty()) {
+			// Hashing costs a few hundred milliseconds, so only pay it when the account has to be created
+			if (!repo.existsByEmail(email)) {
 				Employee superadmin = new Employee(
 						"Super Admin",
 						email,
-						password,
+						passwordEncoder.encode(superAdminDTO.getPassword()),
 						"SUPERADMIN"
 				);
 
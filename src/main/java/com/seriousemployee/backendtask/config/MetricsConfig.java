@@ -0,0 +1,74 @@
+package com.seriousemployee.backendtask.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Request-pipeline metrics that Boot does not publish on its own. Repository timings come from Spring Data's
+ * {@code spring.data.repository.invocations} and pool gauges from {@code hikaricp.*}; see {@code management.metrics}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    /**
+     * Share of the pool that is busy or being waited for: above 1 means requests are queueing for connections.
+     */
+    @Bean
+    MeterBinder dataSourceSaturationMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream().forEach(dataSource -> {
+            HikariDataSource hikari = unwrap(dataSource, HikariDataSource.class);
+            if (hikari != null) {
+                Gauge.builder("app.datasource.saturation", hikari, MetricsConfig::saturation)
+                        .description("(active + pending) / maximum pool size")
+                        .tag("pool", String.valueOf(hikari.getPoolName()))
+                        .register(registry);
+            }
+
+            ConnectionLimitingDataSource limiter = unwrap(dataSource, ConnectionLimitingDataSource.class);
+            if (limiter != null) {
+                String pool = hikari != null ? String.valueOf(hikari.getPoolName()) : "default";
+                Gauge.builder("app.datasource.limiter.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                        .description("Connection permits left for virtual threads")
+                        .tag("pool", pool)
+                        .register(registry);
+                Gauge.builder("app.datasource.limiter.waiting", limiter, ConnectionLimitingDataSource::getQueueLength)
+                        .description("Virtual threads waiting for a connection permit")
+                        .tag("pool", pool)
+                        .register(registry);
+            }
+        });
+    }
+
+    private static double saturation(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null || dataSource.getMaximumPoolSize() <= 0) {
+            return 0;
+        }
+        return (double) (pool.getActiveConnections() + pool.getThreadsAwaitingConnection()) / dataSource.getMaximumPoolSize();
+    }
+
+    private static <T> T unwrap(DataSource dataSource, Class<T> type) {
+        try {
+            return dataSource.isWrapperFor(type) ? dataSource.unwrap(type) : null;
+        }
+        catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.seriousemployee.backendtask.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request statement counting ({@code app.datasource.statement-metrics.enabled}, on by default).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.statement-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryCountConfig {
+
+    @Bean
+    static BeanPostProcessor statementCountingPostProcessor(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)
+                        // The routing proxy only hands out connections of the pools behind it, which are wrapped themselves
+                        && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                    long slowThresholdMillis = environment.getProperty("app.datasource.statement-metrics.slow-threshold-ms", Long.class, 200L);
+                    return new StatementCountingDataSource(dataSource, meterRegistry.getObject(), slowThresholdMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<QueryCountFilter> queryCountFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<QueryCountFilter> registration = new FilterRegistrationBean<>(new QueryCountFilter(meterRegistry));
+        // Ahead of Spring Security, so token checks that hit the database are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,36 @@
+package com.seriousemployee.backendtask.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the statements executed so far as an {@code X-Query-Count} header, just before the body is written.
+ * Debug aid, only active with {@code app.datasource.statement-metrics.header-enabled}.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "app.datasource.statement-metrics.header-enabled", havingValue = "true")
+public class QueryCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        long count = StatementCounter.current();
+        if (count >= 0) {
+            response.getHeaders().set(QUERY_COUNT_HEADER, String.valueOf(count));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,86 @@
+package com.seriousemployee.backendtask.config;
+
+import com.seriousemployee.backendtask.security.EmployeeDetails;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a client on the primary while the replica may not have caught up with its writes. Mutating requests run
+ * entirely against the primary, and the client's reads stay there for {@code windowMillis} after the last one.
+ * Clients are told apart by employee id, or by address before they authenticate. This filter runs after
+ * authentication, which therefore reads token versions and principals from the primary on its own.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(long windowMillis) {
+        this.windowNanos = windowMillis * 1_000_000;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String client = clientKey(request);
+        boolean mutating = isMutating(request.getMethod());
+        long now = System.nanoTime();
+
+        ReplicaDataSource.forcePrimary(mutating || wroteRecently(client, now));
+        try {
+            filterChain.doFilter(request, response);
+        }
+        finally {
+            ReplicaDataSource.forcePrimary(false);
+        }
+
+        if (mutating && response.getStatus() < 400) {
+            if (primaryUntil.size() >= SWEEP_THRESHOLD) {
+                primaryUntil.values().removeIf(until -> until - now <= 0);
+            }
+            primaryUntil.put(client, System.nanoTime() + windowNanos);
+        }
+    }
+
+    int size() {
+        return primaryUntil.size();
+    }
+
+    private boolean wroteRecently(String client, long now) {
+        Long until = primaryUntil.get(client);
+        if (until == null) {
+            return false;
+        }
+        if (until - now > 0) {
+            return true;
+        }
+        primaryUntil.remove(client, until);
+        return false;
+    }
+
+    private static boolean isMutating(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof EmployeeDetails employee) {
+            return "id:" + employee.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
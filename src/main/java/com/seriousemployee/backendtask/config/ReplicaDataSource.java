@@ -0,0 +1,80 @@
+package com.seriousemployee.backendtask.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Read-only side of the routing data source. Hands out replica connections unless the current request must read
+ * its own writes, or the replica is unhealthy or lagging; in those cases the primary serves the read.
+ */
+public class ReplicaDataSource extends DelegatingDataSource {
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final ReplicaHealthMonitor healthMonitor;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReplicaDataSource(DataSource replica, DataSource primary, ReplicaHealthMonitor healthMonitor, MeterRegistry meterRegistry) {
+        super(replica);
+        this.primary = primary;
+        this.healthMonitor = healthMonitor;
+        this.replicaReads = meterRegistry.counter("app.datasource.reads", "target", "replica");
+        this.primaryReads = meterRegistry.counter("app.datasource.reads", "target", "primary");
+    }
+
+    /**
+     * Runs the action with every read on the current thread served by the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        }
+        finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            }
+            else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    static void forcePrimary(boolean force) {
+        if (force) {
+            FORCE_PRIMARY.set(Boolean.TRUE);
+        }
+        else {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (FORCE_PRIMARY.get() == null && healthMonitor.isUsable()) {
+            try {
+                Connection connection = obtainTargetDataSource().getConnection();
+                replicaReads.increment();
+                return connection;
+            }
+            catch (SQLException e) {
+                healthMonitor.markUnavailable();
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+}
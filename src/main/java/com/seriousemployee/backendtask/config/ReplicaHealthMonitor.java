@@ -0,0 +1,99 @@
+package com.seriousemployee.backendtask.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the replica for its replay lag. The replica is only used while it answers and lags at most
+ * {@code maxLagMillis} behind the primary. A server that is not in recovery (a stand-in database in tests) has no lag.
+ */
+public class ReplicaHealthMonitor implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+    private static final String LAG_QUERY = """
+            select case
+                when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            end
+            """;
+
+    private final DataSource replica;
+    private final long maxLagMillis;
+    private final long intervalMillis;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-health");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean usable;
+    private volatile long lagMillis = -1;
+
+    public ReplicaHealthMonitor(DataSource replica, long maxLagMillis, long intervalMillis) {
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::check, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * Replay lag seen by the last check, or -1 when the replica could not be reached.
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * Takes the replica out of rotation until the next successful check, after a connection failure.
+     */
+    public void markUnavailable() {
+        usable = false;
+    }
+
+    void check() {
+        boolean wasUsable = usable;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            lagMillis = (long) rs.getDouble(1);
+            usable = lagMillis <= maxLagMillis;
+        }
+        catch (SQLException | RuntimeException e) {
+            lagMillis = -1;
+            usable = false;
+        }
+
+        if (wasUsable != usable) {
+            if (usable) {
+                log.info("Replica back in rotation (lag {} ms)", lagMillis);
+            }
+            else {
+                log.warn("Replica out of rotation (lag {} ms, limit {} ms), reading from the primary", lagMillis, maxLagMillis);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,88 @@
+package com.seriousemployee.backendtask.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write split ({@code app.datasource.replica.enabled}, off by default). Read-only transactions go to the replica
+ * pool and everything else to the primary. The connection is fetched lazily, once the transaction's read-only flag
+ * is known; {@link ReplicaDataSource} decides whether the replica may serve it.
+ * <p>
+ * The pools are injected by name: the data source post-processors may wrap them, so their bean type is not a
+ * {@link HikariDataSource} by the time they are injected.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(Environment environment) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(environment.getRequiredProperty("app.datasource.replica.url"))
+                .username(environment.getProperty("app.datasource.replica.username"))
+                .password(environment.getProperty("app.datasource.replica.password"))
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    ReplicaHealthMonitor replicaHealthMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource, Environment environment, MeterRegistry meterRegistry) {
+        long maxLagMillis = environment.getProperty("app.datasource.replica.max-lag-ms", Long.class, 1000L);
+        long intervalMillis = environment.getProperty("app.datasource.replica.health-check-interval-ms", Long.class, 1000L);
+        ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(replicaDataSource, maxLagMillis, intervalMillis);
+        Gauge.builder("app.datasource.replica.lag", monitor, ReplicaHealthMonitor::getLagMillis)
+                .description("Replay lag of the replica in milliseconds, -1 when unreachable")
+                .register(meterRegistry);
+        Gauge.builder("app.datasource.replica.usable", monitor, m -> m.isUsable() ? 1 : 0)
+                .description("1 while reads are routed to the replica")
+                .register(meterRegistry);
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                          @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                          ReplicaHealthMonitor replicaHealthMonitor,
+                          MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routing.setReadOnlyDataSource(new ReplicaDataSource(replicaDataSource, primaryDataSource, replicaHealthMonitor, meterRegistry));
+        return routing;
+    }
+
+    @Bean
+    FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(Environment environment) {
+        long windowMillis = environment.getProperty("app.datasource.replica.read-your-writes-ms", Long.class, 5000L);
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(windowMillis));
+        // Behind Spring Security, so the client is known by employee id
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
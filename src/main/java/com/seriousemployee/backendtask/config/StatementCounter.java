@@ -0,0 +1,54 @@
+package com.seriousemployee.backendtask.config;
+
+/**
+ * Counts the JDBC statements executed on the current thread while a scope is open. Scopes nest; a statement
+ * counts towards every open scope. Fed by {@link StatementCountingDataSource}.
+ */
+public final class StatementCounter {
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private StatementCounter() { }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Statements executed so far in the innermost open scope, or -1 when no scope is open.
+     */
+    public static long current() {
+        Scope scope = CURRENT.get();
+        return scope == null ? -1 : scope.count;
+    }
+
+    static void increment() {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.count++;
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private long count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            }
+            else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
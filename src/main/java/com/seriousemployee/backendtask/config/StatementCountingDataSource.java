@@ -0,0 +1,113 @@
+package com.seriousemployee.backendtask.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every statement executed through the wrapped data source, JPA and {@code JdbcTemplate} alike. Each execution
+ * (a whole JDBC batch counts once) feeds the {@link StatementCounter} of the current thread and the
+ * {@code app.db.statements} timer, and statements slower than the threshold are logged with their SQL.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+    private static final Logger log = LoggerFactory.getLogger(StatementCountingDataSource.class);
+
+    private final Timer statements;
+    private final long slowThresholdNanos;
+
+    public StatementCountingDataSource(DataSource target, MeterRegistry meterRegistry, long slowThresholdMillis) {
+        super(target);
+        this.statements = Timer.builder("app.db.statements")
+                .description("JDBC statement executions, including batches")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.slowThresholdNanos = slowThresholdMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis) : Long.MAX_VALUE;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    Object result = invoke(method, connection, args);
+                    if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        // prepareStatement and prepareCall take the SQL up front; createStatement passes it on execute
+                        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                        return counting(statement, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Object counting(Statement statement, Class<?> statementType, String preparedSql) {
+        return Proxy.newProxyInstance(
+                StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{statementType},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(method, statement, args);
+                    }
+
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(method, statement, args);
+                    }
+                    finally {
+                        long elapsed = System.nanoTime() - start;
+                        StatementCounter.increment();
+                        statements.record(elapsed, TimeUnit.NANOSECONDS);
+                        if (elapsed >= slowThresholdNanos) {
+                            String sql = preparedSql != null ? preparedSql
+                                    : args != null && args.length > 0 && args[0] instanceof String text ? text : "<batch>";
+                            log.warn("Slow statement ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(elapsed), sql);
+                        }
+                    }
+                });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.seriousemployee.backendtask.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Extras for the virtual-thread mode ({@code spring.threads.virtual.enabled=true}, see the {@code virtual} profile).
+ * Boot itself switches Tomcat request handling and the async task executor to virtual threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.connection-limiter.enabled", havingValue = "true")
+    static BeanPostProcessor connectionLimiterPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)
+                        // The routing proxy only hands out connections of the pools behind it, which are wrapped themselves
+                        && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                    int permits = environment.getProperty("app.datasource.connection-limiter.permits", Integer.class,
+                            environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                    long maxWaitMillis = environment.getProperty("app.datasource.connection-limiter.max-wait-ms", Long.class, 5000L);
+                    return new ConnectionLimitingDataSource(dataSource, permits, maxWaitMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(Environment environment) {
+        long thresholdMillis = environment.getProperty("app.virtual-threads.pinning-threshold-ms", Long.class, 20L);
+        return new VirtualThreadPinningMonitor(thresholdMillis);
+    }
+}
@@ -0,0 +1,84 @@
+package com.seriousemployee.backendtask.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event and reports every time a virtual thread blocked while pinned
+ * to its carrier (for example inside a {@code synchronized} block of a driver) for longer than the threshold.
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int REPORTED_FRAMES = 8;
+
+    private final long thresholdMillis;
+    private final AtomicLong pinnedEvents = new AtomicLong();
+    private final AtomicLong pinnedNanos = new AtomicLong();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT)
+                .withThreshold(Duration.ofMillis(thresholdMillis))
+                .withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Reporting virtual thread pinning longer than {} ms", thresholdMillis);
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.get();
+    }
+
+    public long getPinnedNanos() {
+        return pinnedNanos.get();
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedEvents.incrementAndGet();
+        pinnedNanos.addAndGet(event.getDuration().toNanos());
+
+        StringBuilder frames = new StringBuilder();
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace != null) {
+            List<RecordedFrame> recordedFrames = stackTrace.getFrames();
+            for (int i = 0; i < Math.min(REPORTED_FRAMES, recordedFrames.size()); i++) {
+                RecordedFrame frame = recordedFrames.get(i);
+                frames.append("\n\tat ")
+                        .append(frame.getMethod().getType().getName())
+                        .append('.')
+                        .append(frame.getMethod().getName())
+                        .append(':')
+                        .append(frame.getLineNumber());
+            }
+        }
+        log.warn("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), frames);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+}
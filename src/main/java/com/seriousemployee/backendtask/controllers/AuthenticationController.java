@@ -1,18 +1,32 @@
 package com.seriousemployee.backendtask.controllers;
 
 import com.seriousemployee.backendtask.dto.LoginEmployeeResponse;
+import com.seriousemployee.backendtask.dto.RefreshTokenRequest;
 import com.seriousemployee.backendtask.dto.RegisterEmployeeResponse;
 import com.seriousemployee.backendtask.dto.LoginEmployeeRequest;
 import com.seriousemployee.backendtask.dto.RegisterEmployeeRequest;
+import com.seriousemployee.backendtask.dto.TokenRefreshResponse;
 import com.seriousemployee.backendtask.entities.Employee;
+import com.seriousemployee.backendtask.exception.RateLimitExceededException;
+import com.seriousemployee.backendtask.exception.TokenRevokedException;
+import com.seriousemployee.backendtask.security.AuthRateLimiter;
 import com.seriousemployee.backendtask.security.EmployeeDetails;
+import com.seriousemployee.backendtask.security.TokenRevocationRegistry;
 import com.seriousemployee.backendtask.services.AuthenticationService;
+import com.seriousemployee.backendtask.services.EmployeeService;
 import com.seriousemployee.backendtask.services.JwtService;
+import com.seriousemployee.backendtask.services.RefreshTokenService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.MalformedJwtException;
+import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RequestMapping("/api/v1/auth")
@@ -20,14 +34,25 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthenticationController {
     private final JwtService jwtService;
     private final AuthenticationService authenticationService;
+    private final AuthRateLimiter rateLimiter;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final EmployeeService employeeService;
+    private final RefreshTokenService refreshTokenService;
 
-    public AuthenticationController(JwtService jwtService, AuthenticationService authenticationService) {
+    public AuthenticationController(JwtService jwtService, AuthenticationService authenticationService, AuthRateLimiter rateLimiter,
+                                    TokenRevocationRegistry tokenRevocationRegistry, EmployeeService employeeService,
+                                    RefreshTokenService refreshTokenService) {
         this.jwtService = jwtService;
         this.authenticationService = authenticationService;
+        this.rateLimiter = rateLimiter;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.employeeService = employeeService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @PostMapping("/register")
     public ResponseEntity<RegisterEmployeeResponse> register(@Valid @RequestBody RegisterEmployeeRequest request) {
+        checkEmailLimit(AuthRateLimiter.Endpoint.REGISTER, request.email());
         Employee registeredEmployee = authenticationService.signup(request);
 
         return ResponseEntity.ok(
@@ -40,10 +65,12 @@ public class AuthenticationController {
 
     @PostMapping("/login")
     public ResponseEntity<LoginEmployeeResponse> authenticate(@Valid @RequestBody LoginEmployeeRequest request) {
+        checkEmailLimit(AuthRateLimiter.Endpoint.LOGIN, request.email());
         Employee authenticatedEmployee = authenticationService.authenticate(request);
         EmployeeDetails employeeDetails = new EmployeeDetails(authenticatedEmployee);
 
         String jwtToken = jwtService.generateToken(employeeDetails);
+        String refreshToken = refreshTokenService.issue(authenticatedEmployee.getId());
 
         return ResponseEntity.ok(
                 new LoginEmployeeResponse(
@@ -53,6 +80,62 @@ public class AuthenticationController {
                         authenticatedEmployee.getRole(),
                         authenticatedEmployee.getCreatedAt().toString(),
                         jwtToken,
-                        jwtService.getExpirationTime().toString()));
+                        jwtService.getExpirationTime().toString(),
+                        refreshToken,
+                        String.valueOf(refreshTokenService.getExpirationTime())));
+    }
+
+    /**
+     * Trades a refresh token for a new access token and a new refresh token. No password is checked,
+     * so keeping a session alive costs a hash lookup instead of a BCrypt verification.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenRefreshResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.refreshToken());
+
+        return ResponseEntity.ok(
+                new TokenRefreshResponse(
+                        jwtService.generateToken(rotation.employee()),
+                        jwtService.getExpirationTime().toString(),
+                        rotation.refreshToken(),
+                        String.valueOf(refreshTokenService.getExpirationTime())));
+    }
+
+    /**
+     * Revokes the presented token and the refresh token sent with it, or with {@code everywhere=true} every token
+     * of the employee. A refresh token of another employee is ignored. Tokens issued without an id can only be
+     * revoked everywhere.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestParam(defaultValue = "false") boolean everywhere,
+                                       @Parameter(hidden = true)
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = true) String authorization,
+                                       @Valid @RequestBody(required = false) RefreshTokenRequest refresh) {
+        if (!authorization.startsWith("Bearer ")) {
+            throw new MalformedJwtException("Missing bearer token");
+        }
+        Claims claims = jwtService.verifyToken(authorization.substring(7));
+        if (tokenRevocationRegistry.isRevoked(claims.getId())) {
+            throw new TokenRevokedException("Token has been revoked");
+        }
+
+        EmployeeDetails employee = jwtService.toEmployeeDetails(claims);
+        if (everywhere || !tokenRevocationRegistry.revoke(claims.getId(), claims.getExpiration())) {
+            if (employee == null) {
+                throw new MalformedJwtException("Token does not identify an employee");
+            }
+            employeeService.revokeTokens(employee.getId());
+        }
+        else if (refresh != null && employee != null) {
+            refreshTokenService.revoke(refresh.refreshToken(), employee.getId());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private void checkEmailLimit(AuthRateLimiter.Endpoint endpoint, String email) {
+        long retryAfterSeconds = rateLimiter.acquireForEmail(endpoint, email);
+        if (retryAfterSeconds > 0) {
+            throw new RateLimitExceededException("Too many attempts for this account, please retry later", retryAfterSeconds);
+        }
     }
 }
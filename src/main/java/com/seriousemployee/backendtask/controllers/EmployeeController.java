@@ -3,8 +3,14 @@ package com.seriousemployee.backendtask.controllers;
 import com.seriousemployee.backendtask.dto.*;
 import com.seriousemployee.backendtask.entities.Employee;
 import com.seriousemployee.backendtask.entities.EmployeeSpecification;
+import com.seriousemployee.backendtask.exception.ResourceNotFoundException;
 import com.seriousemployee.backendtask.exception.SuperAdminException;
+import com.seriousemployee.backendtask.repositories.EmployeeSearchHit;
+import com.seriousemployee.backendtask.repositories.EmployeeSummary;
 import com.seriousemployee.backendtask.security.EmployeeDetails;
+import com.seriousemployee.backendtask.services.EmployeeDirectory;
+import com.seriousemployee.backendtask.services.EmployeeExportService;
+import com.seriousemployee.backendtask.services.EmployeeImportService;
 import com.seriousemployee.backendtask.services.EmployeeService;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
@@ -12,37 +18,57 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/employees")
 public class EmployeeController {
+    private static final int MAX_SEEK_PAGE_SIZE = 100;
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final EmployeeService service;
+    private final EmployeeImportService importService;
+    private final EmployeeExportService exportService;
+    private final EmployeeDirectory directory;
     @Autowired
     private SuperAdminDTO superAdminDTO;
 
-    public EmployeeController(EmployeeService service) {
+    public EmployeeController(EmployeeService service, EmployeeImportService importService, EmployeeExportService exportService,
+                              EmployeeDirectory directory) {
         this.service = service;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.directory = directory;
     }
 
     @GetMapping("/me")
-    public ResponseEntity<Employee> getSelf(@Parameter(hidden = true) @RequestHeader(value = "Authorization", required = true) String authorization) {
+    public ResponseEntity<GetEmployeeResponse> getSelf(@Parameter(hidden = true) @RequestHeader(value = "Authorization", required = true) String authorization) {
         EmployeeDetails employeeDetails = (EmployeeDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (employeeDetails == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        Employee employee = service.getEmployeeById(employeeDetails.getId());
-        return ResponseEntity.ok(employee);
+        EmployeeSummary employee = service.getEmployeeById(employeeDetails.getId());
+        // An If-None-Match hit is answered with 304 before the body is serialized
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(employee))
+                .body(GetEmployeeResponse.fromSummary(employee));
     }
 
     @GetMapping("/view/{email}")
@@ -52,9 +78,13 @@ public class EmployeeController {
         if (email.equals(superAdminDTO.getUsername()))
             throw new SuperAdminException("You are not authorized to access this information.");
 
-        Employee employee = service.getEmployeeByEmail(email);
-        GetEmployeeResponse response = GetEmployeeResponse.fromEntity(employee);
-        return ResponseEntity.ok(response);
+        EmployeeSummary employee = directory.isReady()
+                ? directory.findByEmail(email).orElseThrow(() -> new ResourceNotFoundException("Employee not found with email: " + email))
+                : service.getEmployeeByEmail(email);
+        GetEmployeeResponse response = GetEmployeeResponse.fromSummary(employee);
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(employee))
+                .body(response);
     }
 
     @DeleteMapping("/deleteMyAccount")
@@ -68,12 +98,13 @@ public class EmployeeController {
         if (employeeDetails.getUsername().equals(superAdminDTO.getUsername()))
             throw new SuperAdminException("Cannot delete Super Admin account");
 
-        service.deleteEmployee(employeeDetails.getId());
+        service.deleteEmployee(employeeDetails.getId(), employeeDetails.getId(), false);
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("/updateMyInfo")
-    public ResponseEntity<Employee> updateEmployee(@Valid @RequestBody RegisterEmployeeRequest employeeRequest,
+    public ResponseEntity<GetEmployeeResponse> updateEmployee(@Valid @RequestBody RegisterEmployeeRequest employeeRequest,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                    @Parameter(hidden = true)
                                                    @RequestHeader(value = "Authorization", required = true) String authorization) {
         EmployeeDetails employeeDetails = (EmployeeDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -85,8 +116,11 @@ public class EmployeeController {
         if (employeeDetails.getUsername().equals(superAdminDTO.getUsername()))
             throw new SuperAdminException("Cannot update Super Admin account");
 
-        Employee employee = service.updateEmployee(employeeDetails.getId(), employeeRequest, false);
-        return ResponseEntity.ok(employee);
+        Long expectedVersion = EmployeeETags.expectedVersion(ifMatch, employeeDetails.getId());
+        Employee employee = service.updateEmployee(employeeDetails.getId(), employeeRequest, expectedVersion);
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(employee))
+                .body(GetEmployeeResponse.fromEntity(employee));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
@@ -100,55 +134,120 @@ public class EmployeeController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        Employee employee = service.getEmployeeById(id);
-
-        if (employee.getEmail().equals(superAdminDTO.getUsername()))
-            throw new SuperAdminException("Cannot complete this action.");
-        else if (employee.getRole().equals("ADMIN") && !selfDetails.getUsername().equals(superAdminDTO.getUsername()) && !selfDetails.getId().equals(id))
-            throw new SuperAdminException("You do not have permission to delete this employee.");
-
-        service.deleteEmployee(employee);
+        // The super admin and, for admins, other admins are protected by the delete statement itself
+        service.deleteEmployee(id, selfDetails.getId(), selfDetails.getUsername().equals(superAdminDTO.getUsername()));
         return ResponseEntity.noContent().build();
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
     @PutMapping("/promote/{id}")
     public ResponseEntity<RegisterEmployeeResponse> promoteEmployee(@PathVariable Long id,
+                                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                                     @Parameter(hidden = true)
                                                                     @RequestHeader(value = "Authorization", required = true) String authorization) {
 
-        Employee employee = service.updateEmployee(id, null, true);
-        if (employee.getEmail().equals(superAdminDTO.getUsername()))
-            throw new SuperAdminException("Cannot complete this action.");
+        EmployeeSummary employee = service.changeRole(id, "ADMIN", EmployeeETags.expectedVersion(ifMatch, id));
         RegisterEmployeeResponse response = new RegisterEmployeeResponse(
-                employee.getId(),
-                employee.getName(),
-                employee.getEmail(),
-                employee.getRole(),
-                employee.getCreatedAt().toString()
+                employee.id(),
+                employee.name(),
+                employee.email(),
+                employee.role(),
+                employee.createdAt().toString()
         );
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(employee))
+                .body(response);
     }
 
     @PreAuthorize("hasRole('SUPERADMIN')")
     @PutMapping("/demote/{id}")
     public ResponseEntity<RegisterEmployeeResponse> demoteEmployee(@PathVariable Long id,
+                                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                                    @Parameter(hidden = true)
                                                                    @RequestHeader(value = "Authorization", required = true) String authorization){
 
-        Employee employee = service.updateEmployee(id, null, false);
-        if (employee.getEmail().equals(superAdminDTO.getUsername()))
-            throw new SuperAdminException("Cannot complete this action.");
+        EmployeeSummary employee = service.changeRole(id, "USER", EmployeeETags.expectedVersion(ifMatch, id));
         RegisterEmployeeResponse response = new RegisterEmployeeResponse(
-                employee.getId(),
-                employee.getName(),
-                employee.getEmail(),
-                employee.getRole(),
-                employee.getCreatedAt().toString()
+                employee.id(),
+                employee.name(),
+                employee.email(),
+                employee.role(),
+                employee.createdAt().toString()
         );
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(employee))
+                .body(response);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+    @PostMapping("/bulk/promote")
+    public ResponseEntity<BulkEmployeeResponse> promoteEmployees(@Valid @RequestBody BulkEmployeeRequest request,
+                                                                 @Parameter(hidden = true)
+                                                                 @RequestHeader(value = "Authorization", required = true) String authorization) {
+        return ResponseEntity.ok(BulkEmployeeResponse.fromChanges(service.changeRoles(request.ids(), "ADMIN")));
+    }
+
+    @PreAuthorize("hasRole('SUPERADMIN')")
+    @PostMapping("/bulk/demote")
+    public ResponseEntity<BulkEmployeeResponse> demoteEmployees(@Valid @RequestBody BulkEmployeeRequest request,
+                                                                @Parameter(hidden = true)
+                                                                @RequestHeader(value = "Authorization", required = true) String authorization) {
+        return ResponseEntity.ok(BulkEmployeeResponse.fromChanges(service.changeRoles(request.ids(), "USER")));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkEmployeeResponse> deleteEmployees(@Valid @RequestBody BulkEmployeeRequest request,
+                                                                @Parameter(hidden = true)
+                                                                @RequestHeader(value = "Authorization", required = true) String authorization) {
+        EmployeeDetails selfDetails = (EmployeeDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        if (selfDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        boolean superAdmin = selfDetails.getUsername().equals(superAdminDTO.getUsername());
+        return ResponseEntity.ok(BulkEmployeeResponse.fromChanges(service.deleteEmployees(request.ids(), selfDetails.getId(), superAdmin)));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<BulkImportResponse> importEmployees(InputStream body,
+                                                              @Parameter(hidden = true)
+                                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                              @Parameter(hidden = true)
+                                                              @RequestHeader(value = "Authorization", required = true) String authorization) throws IOException {
+        EmployeeImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV)
+                ? EmployeeImportService.Format.CSV
+                : EmployeeImportService.Format.NDJSON;
+
+        return ResponseEntity.ok(importService.importEmployees(body, format));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateJoinedBefore,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateJoinedAfter,
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Authorization", required = true) String authorization
+            ) {
+        EmployeeExportService.Format exportFormat = format.equalsIgnoreCase("csv")
+                ? EmployeeExportService.Format.CSV
+                : EmployeeExportService.Format.NDJSON;
+
+        Specification<Employee> specification = EmployeeSpecification.build(role, dateJoinedBefore, dateJoinedAfter);
+        StreamingResponseBody body = output -> exportService.export(specification, exportFormat, output);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat == EmployeeExportService.Format.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=employees." + (exportFormat == EmployeeExportService.Format.CSV ? "csv" : "ndjson"))
+                .body(body);
     }
 
     @GetMapping("/list")
@@ -169,9 +268,103 @@ public class EmployeeController {
 
         Specification<Employee> specification = EmployeeSpecification.build(role, dateJoinedBefore, dateJoinedAfter);
 
-        Page<GetEmployeeResponse> response = service.findAllEmployees(specification, pageable).map(GetEmployeeResponse::fromEntity);
+        // The in-memory directory, when loaded, answers without a database round trip
+        Page<EmployeeSummary> rows = directory.isReady()
+                ? directory.findPage(role, dateJoinedBefore, dateJoinedAfter, orderByDate.equalsIgnoreCase("asc"), pageable)
+                : service.findAllEmployees(specification, pageable);
+        Page<GetEmployeeResponse> response = rows.map(GetEmployeeResponse::fromSummary);
 
         GetEmployeePageResponse pageResponse = GetEmployeePageResponse.fromPage(response);
-        return ResponseEntity.ok(pageResponse);
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(rows.getContent(), page, size, rows.getTotalElements()))
+                .body(pageResponse);
+    }
+
+    @GetMapping("/list/slice")
+    public ResponseEntity<GetEmployeeSliceResponse> listEmployeesSlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "desc") String orderByDate,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateJoinedBefore,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateJoinedAfter,
+            @RequestParam(defaultValue = "false") boolean estimateTotal,
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Authorization", required = true) String authorization
+            ) {
+        Sort sort = orderByDate.equalsIgnoreCase("asc") ? Sort.by("createdAt").ascending() : Sort.by("createdAt").descending();
+
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        Specification<Employee> specification = EmployeeSpecification.build(role, dateJoinedBefore, dateJoinedAfter);
+
+        Slice<EmployeeSummary> rows = service.findEmployeesSlice(specification, pageable);
+        Slice<GetEmployeeResponse> response = rows.map(GetEmployeeResponse::fromSummary);
+        Long estimatedTotal = estimateTotal ? service.estimateEmployeeCount(role, dateJoinedBefore, dateJoinedAfter) : null;
+
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(rows.getContent(), page, size, rows.hasNext(), estimatedTotal))
+                .body(GetEmployeeSliceResponse.fromSlice(response, estimatedTotal));
+    }
+
+    @GetMapping("/list/seek")
+    public ResponseEntity<GetEmployeeCursorResponse> listEmployeesAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "desc") String orderByDate,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateJoinedBefore,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateJoinedAfter,
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Authorization", required = true) String authorization
+            ) {
+        boolean ascending = orderByDate.equalsIgnoreCase("asc");
+        int pageSize = Math.max(1, Math.min(size, MAX_SEEK_PAGE_SIZE));
+        EmployeeCursor after = cursor == null || cursor.isBlank() ? null : EmployeeCursor.decode(cursor);
+
+        Specification<Employee> specification = EmployeeSpecification.build(role, dateJoinedBefore, dateJoinedAfter);
+
+        Slice<EmployeeSummary> slice = service.findEmployeesAfter(specification, after, ascending, pageSize);
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            EmployeeSummary last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new EmployeeCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(slice.getContent(), slice.hasNext()))
+                .body(new GetEmployeeCursorResponse(
+                        slice.map(GetEmployeeResponse::fromSummary).getContent(),
+                        nextCursor,
+                        slice.hasNext()));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<GetEmployeeCursorResponse> searchEmployees(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Authorization", required = true) String authorization
+            ) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEEK_PAGE_SIZE));
+        EmployeeSearchCursor after = cursor == null || cursor.isBlank() ? null : EmployeeSearchCursor.decode(cursor);
+
+        Slice<EmployeeSearchHit> slice = service.searchEmployees(q, after, pageSize);
+        List<EmployeeSummary> employees = slice.getContent().stream().map(EmployeeSearchHit::employee).toList();
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            EmployeeSearchHit last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new EmployeeSearchCursor(last.score(), last.employee().id()).encode();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(employees, q, slice.hasNext()))
+                .body(new GetEmployeeCursorResponse(
+                        employees.stream().map(GetEmployeeResponse::fromSummary).toList(),
+                        nextCursor,
+                        slice.hasNext()));
     }
 }
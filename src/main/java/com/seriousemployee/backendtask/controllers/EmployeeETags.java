@@ -0,0 +1,63 @@
+package com.seriousemployee.backendtask.controllers;
+
+import com.seriousemployee.backendtask.entities.Employee;
+import com.seriousemployee.backendtask.exception.PreconditionFailedException;
+import com.seriousemployee.backendtask.repositories.EmployeeSummary;
+
+import java.util.List;
+
+/**
+ * Validators derived from the employee {@code @Version} column. A single employee gets the strong ETag
+ * {@code "<id>-<version>"}; a list page gets a weak ETag folded from the ids and versions of its rows.
+ */
+final class EmployeeETags {
+    private EmployeeETags() { }
+
+    static String of(EmployeeSummary employee) {
+        return of(employee.id(), employee.version());
+    }
+
+    static String of(Employee employee) {
+        return of(employee.getId(), employee.getVersion());
+    }
+
+    static String of(List<EmployeeSummary> rows, Object... pageState) {
+        long hash = 17;
+        for (EmployeeSummary row : rows) {
+            hash = 31 * hash + row.id();
+            hash = 31 * hash + row.version();
+        }
+        for (Object state : pageState) {
+            hash = 31 * hash + (state == null ? 0 : state.hashCode());
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Version an {@code If-Match} header asks for, or null when the header is absent or {@code *}.
+     * A header that cannot match this employee fails the precondition.
+     */
+    static Long expectedVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String prefix = "\"" + id + "-";
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith(prefix) && value.endsWith("\"")) {
+                try {
+                    return Long.parseLong(value.substring(prefix.length(), value.length() - 1));
+                }
+                catch (NumberFormatException e) {
+                    break;
+                }
+            }
+        }
+        throw new PreconditionFailedException("Employee has been modified since it was read");
+    }
+
+    private static String of(Long id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+}
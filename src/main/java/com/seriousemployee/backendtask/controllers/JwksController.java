@@ -0,0 +1,34 @@
+package com.seriousemployee.backendtask.controllers;
+
+import com.seriousemployee.backendtask.security.JwtKeyRing;
+import com.seriousemployee.backendtask.security.JwtSigningProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Public keys that verify access tokens, for services that validate them offline.
+ */
+@RestController
+public class JwksController {
+    private final JwtKeyRing keyRing;
+    private final long maxAgeSeconds;
+
+    public JwksController(JwtKeyRing keyRing, JwtSigningProperties properties) {
+        this.keyRing = keyRing;
+        this.maxAgeSeconds = properties.getJwksMaxAgeSeconds();
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = "application/jwk-set+json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        Map<String, Object> jwks = keyRing.getJwks();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                .eTag(Integer.toHexString(jwks.hashCode()))
+                .body(jwks);
+    }
+}
@@ -0,0 +1,13 @@
+package com.seriousemployee.backendtask.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkEmployeeRequest(
+        @NotEmpty(message = "At least one id is required")
+        @Size(max = 10000, message = "At most 10000 ids can be changed at once")
+        List<@NotNull(message = "Ids cannot be null") Long> ids
+) { }
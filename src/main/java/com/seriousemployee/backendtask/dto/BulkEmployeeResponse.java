@@ -0,0 +1,19 @@
+package com.seriousemployee.backendtask.dto;
+
+import com.seriousemployee.backendtask.repositories.EmployeeChange;
+
+import java.util.List;
+
+public record BulkEmployeeResponse(
+        int requested,
+        int applied,
+        List<BulkEmployeeResult> results
+) {
+    public static BulkEmployeeResponse fromChanges(List<EmployeeChange> changes) {
+        List<BulkEmployeeResult> results = changes.stream()
+                .map(change -> new BulkEmployeeResult(change.id(), change.outcome().name()))
+                .toList();
+        int applied = (int) changes.stream().filter(change -> change.outcome() == EmployeeChange.Outcome.APPLIED).count();
+        return new BulkEmployeeResponse(changes.size(), applied, results);
+    }
+}
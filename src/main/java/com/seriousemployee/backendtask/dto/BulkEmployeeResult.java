@@ -0,0 +1,6 @@
+package com.seriousemployee.backendtask.dto;
+
+public record BulkEmployeeResult(
+        Long id,
+        String status
+) { }
@@ -0,0 +1,7 @@
+package com.seriousemployee.backendtask.dto;
+
+public record BulkImportError(
+        long line,
+        String email,
+        String message
+) { }
@@ -0,0 +1,11 @@
+package com.seriousemployee.backendtask.dto;
+
+import java.util.List;
+
+public record BulkImportResponse(
+        long received,
+        long imported,
+        long failed,
+        List<BulkImportError> errors,
+        boolean errorsTruncated
+) { }
@@ -0,0 +1,38 @@
+package com.seriousemployee.backendtask.dto;
+
+import com.seriousemployee.backendtask.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a search page, ranked by {@code (score desc, id)}. Clients only ever see the encoded,
+ * opaque form.
+ */
+public record EmployeeSearchCursor(
+        float score,
+        Long id
+) {
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = Float.toString(score) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EmployeeSearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return new EmployeeSearchCursor(
+                    Float.parseFloat(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        }
+        catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.seriousemployee.backendtask.dto;
+
+import java.util.List;
+
+public record GetEmployeeCursorResponse(
+        List<GetEmployeeResponse> employees,
+        String nextCursor,
+        boolean hasNext
+) { }
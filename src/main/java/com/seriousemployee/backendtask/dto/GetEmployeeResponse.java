@@ -1,6 +1,7 @@
 package com.seriousemployee.backendtask.dto;
 
 import com.seriousemployee.backendtask.entities.Employee;
+import com.seriousemployee.backendtask.repositories.EmployeeSummary;
 
 public record GetEmployeeResponse(
         Long id,
@@ -18,4 +19,14 @@ public record GetEmployeeResponse(
                 employee.getCreatedAt().toString()
         );
     }
+
+    public static GetEmployeeResponse fromSummary(EmployeeSummary employee) {
+        return new GetEmployeeResponse(
+                employee.id(),
+                employee.name(),
+                employee.email(),
+                employee.role(),
+                employee.createdAt().toString()
+        );
+    }
 }
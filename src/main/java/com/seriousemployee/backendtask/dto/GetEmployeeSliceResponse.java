@@ -0,0 +1,21 @@
+package com.seriousemployee.backendtask.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public record GetEmployeeSliceResponse(
+        List<GetEmployeeResponse> employees,
+        int currentPage,
+        boolean hasNext,
+        Long estimatedTotalItems
+) {
+    public static GetEmployeeSliceResponse fromSlice(Slice<GetEmployeeResponse> slice, Long estimatedTotalItems) {
+        return new GetEmployeeSliceResponse(
+                slice.getContent(),
+                slice.getNumber(),
+                slice.hasNext(),
+                estimatedTotalItems
+        );
+    }
+}
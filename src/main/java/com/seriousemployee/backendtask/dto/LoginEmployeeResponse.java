@@ -7,5 +7,7 @@ public record LoginEmployeeResponse(
         String role,
         String createdAt,
         String token,
-        String tokenExpiresIn
+        String tokenExpiresIn,
+        String refreshToken,
+        String refreshTokenExpiresIn
 ) { }
@@ -0,0 +1,10 @@
+package com.seriousemployee.backendtask.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record RefreshTokenRequest(
+        @NotBlank(message = "Refresh token is mandatory")
+        @Size(max = 100, message = "Refresh token must be less than 100 characters long")
+        String refreshToken
+) { }
@@ -0,0 +1,8 @@
+package com.seriousemployee.backendtask.dto;
+
+public record TokenRefreshResponse(
+        String token,
+        String tokenExpiresIn,
+        String refreshToken,
+        String refreshTokenExpiresIn
+) { }
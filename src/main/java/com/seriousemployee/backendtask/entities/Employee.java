@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 @Table(name = "employees")
 public class Employee {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_id_seq")
+    @SequenceGenerator(name = "employees_id_seq", sequenceName = "employees_id_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String email;
@@ -20,6 +21,12 @@ public class Employee {
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
+    @Version
+    private long version;
+
     public Employee() {}
 
     public Employee(String name, String email, String password, String role) {
@@ -53,6 +60,14 @@ public class Employee {
         return createdAt;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
     public void setName(String name) {
         this.name = name;
     }
@@ -68,4 +83,8 @@ public class Employee {
     public void setRole(String role) {
         this.role = role;
     }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
 }
@@ -3,6 +3,7 @@ package com.seriousemployee.backendtask.entities;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 public class EmployeeSpecification {
     public static Specification<Employee> build(
@@ -22,6 +23,29 @@ public class EmployeeSpecification {
         return spec;
     }
 
+    /**
+     * Keyset predicate: rows strictly after {@code (createdAt, id)} in the given sort direction.
+     * Matches the {@code (created_at, id)} ordering used by the keyset indexes. The leading
+     * {@code createdAt >= cursor} (or {@code <=}) is implied by the rest, but gives the planner an index range to
+     * start from instead of filtering every row.
+     */
+    public static Specification<Employee> seekAfter(LocalDateTime createdAt, Long id, boolean ascending) {
+        return (root, query, criteriaBuilder) -> {
+            if (ascending) {
+                return criteriaBuilder.and(
+                        criteriaBuilder.greaterThanOrEqualTo(root.get("createdAt"), createdAt),
+                        criteriaBuilder.or(
+                                criteriaBuilder.greaterThan(root.get("createdAt"), createdAt),
+                                criteriaBuilder.greaterThan(root.get("id"), id)));
+            }
+            return criteriaBuilder.and(
+                    criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), createdAt),
+                    criteriaBuilder.or(
+                            criteriaBuilder.lessThan(root.get("createdAt"), createdAt),
+                            criteriaBuilder.lessThan(root.get("id"), id)));
+        };
+    }
+
     private static Specification<Employee> hasRole(String role) {
         return (root, query, criteriaBuilder) -> {
             if (role == null || role.isEmpty()) {
@@ -0,0 +1,119 @@
+package com.seriousemployee.backendtask.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.seriousemployee.backendtask.dto.ErrorResponse;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Writes {@link ErrorResponse}-shaped bodies straight to the servlet response. Constant errors are encoded once
+ * with {@link #prepare}, and the timestamp is re-encoded at most once per millisecond, so rejecting a request
+ * allocates next to nothing. Only bodies carrying field errors go through Jackson.
+ */
+@Component
+public class ErrorResponseWriter {
+    private static final byte[] TIMESTAMP_SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectWriter errorWriter;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private volatile Timestamp timestamp = new Timestamp(-1, new byte[0]);
+
+    public ErrorResponseWriter(ObjectMapper objectMapper) {
+        this.errorWriter = objectMapper.writerFor(ErrorResponse.class);
+    }
+
+    /**
+     * Pre-encodes everything but the timestamp of an error body.
+     */
+    public static PreparedError prepare(HttpStatus status, String message) {
+        String prefix = "{\"status\":" + status.value() + ",\"message\":\"" + escape(message) + "\",\"timestamp\":\"";
+        return new PreparedError(status.value(), prefix.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void write(HttpServletResponse response, PreparedError error) throws IOException {
+        byte[] stamp = currentTimestamp();
+
+        response.setStatus(error.status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(error.prefix.length + stamp.length + TIMESTAMP_SUFFIX.length);
+
+        ServletOutputStream out = response.getOutputStream();
+        out.write(error.prefix);
+        out.write(stamp);
+        out.write(TIMESTAMP_SUFFIX);
+        out.flush();
+    }
+
+    public void write(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        write(response, prepare(status, message));
+    }
+
+    public void write(HttpServletResponse response, HttpStatus status, String message, Map<String, String> errors) throws IOException {
+        byte[] body = errorWriter.writeValueAsBytes(new ErrorResponse(status.value(), message, LocalDateTime.now(), errors));
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        response.getOutputStream().flush();
+    }
+
+    private byte[] currentTimestamp() {
+        long now = System.currentTimeMillis();
+        Timestamp current = timestamp;
+        if (current.millis != now) {
+            // The formatter Jackson uses for LocalDateTime; toString() would drop zero seconds
+            String formatted = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), zone));
+            current = new Timestamp(now, formatted.getBytes(StandardCharsets.US_ASCII));
+            timestamp = current;
+        }
+        return current.bytes;
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    public static final class PreparedError {
+        private final int status;
+        private final byte[] prefix;
+
+        private PreparedError(int status, byte[] prefix) {
+            this.status = status;
+            this.prefix = prefix;
+        }
+    }
+
+    private record Timestamp(long millis, byte[] bytes) { }
+}
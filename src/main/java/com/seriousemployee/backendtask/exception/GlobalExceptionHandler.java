@@ -1,13 +1,16 @@
 package com.seriousemployee.backendtask.exception;
 
-import com.seriousemployee.backendtask.dto.ErrorResponse;
+import com.seriousemployee.backendtask.exception.ErrorResponseWriter.PreparedError;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.AccountStatusException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authorization.AuthorizationDeniedException;
@@ -17,34 +20,51 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 
+import java.io.IOException;
 import java.nio.file.AccessDeniedException;
 import java.security.SignatureException;
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.seriousemployee.backendtask.exception.ErrorResponseWriter.prepare;
+
 @RestControllerAdvice
 class GlobalExceptionHandler {
+    private static final PreparedError INVALID_JSON = prepare(HttpStatus.BAD_REQUEST, "Invalid JSON format");
+    private static final PreparedError INVALID_DATA_TYPE = prepare(HttpStatus.BAD_REQUEST, "Invalid data type in request body");
+    private static final PreparedError STALE_EMPLOYEE = prepare(HttpStatus.PRECONDITION_FAILED, "Employee has been modified since it was read");
+    private static final PreparedError BAD_CREDENTIALS = prepare(HttpStatus.UNAUTHORIZED, "Invalid username or password");
+    private static final PreparedError ACCOUNT_LOCKED = prepare(HttpStatus.FORBIDDEN, "Account is locked or disabled");
+    private static final PreparedError ACCESS_DENIED = prepare(HttpStatus.FORBIDDEN, "You do not have permission to complete this action");
+    private static final PreparedError INVALID_SIGNATURE = prepare(HttpStatus.UNAUTHORIZED, "Invalid JWT signature");
+    private static final PreparedError EXPIRED_JWT = prepare(HttpStatus.UNAUTHORIZED, "JWT token has expired");
+    private static final PreparedError MALFORMED_JWT = prepare(HttpStatus.UNAUTHORIZED, "Malformed JWT token");
+    private static final PreparedError INVALID_JWT = prepare(HttpStatus.UNAUTHORIZED, "Invalid JWT token");
+    private static final PreparedError REVOKED_JWT = prepare(HttpStatus.UNAUTHORIZED, "Token has been revoked");
+    private static final PreparedError INVALID_REFRESH_TOKEN = prepare(HttpStatus.UNAUTHORIZED, "Invalid or expired refresh token");
+    private static final PreparedError DUPLICATE_EMAIL = prepare(HttpStatus.CONFLICT, "An account with this email already exists");
+    private static final PreparedError DUPLICATE_ENTRY = prepare(HttpStatus.CONFLICT, "Duplicate entry detected");
+    private static final PreparedError INVALID_DATA = prepare(HttpStatus.BAD_REQUEST, "Invalid data provided");
+    private static final PreparedError UNEXPECTED = prepare(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
+
+    private final ErrorResponseWriter errorWriter;
+
+    GlobalExceptionHandler(ErrorResponseWriter errorWriter) {
+        this.errorWriter = errorWriter;
+    }
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
-    ResponseEntity<ErrorResponse> handleInvalidJson(HttpMessageNotReadableException ex) {
-        String message = "Invalid JSON format";
-
+    void handleInvalidJson(HttpMessageNotReadableException ex, HttpServletResponse response) throws IOException {
         // Handle type mismatch in JSON (e.g., number for string field)
         if (ex.getMessage().contains("Cannot deserialize value of type")) {
-            message = "Invalid data type in request body";
+            errorWriter.write(response, INVALID_DATA_TYPE);
+            return;
         }
-
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                message,
-                LocalDateTime.now()
-        );
-        return ResponseEntity.badRequest().body(error);
+        errorWriter.write(response, INVALID_JSON);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex) {
+    void handleValidationErrors(MethodArgumentNotValidException ex, HttpServletResponse response) throws IOException {
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getFieldErrors().forEach(error ->
                 errors.put(error.getField(), error.getDefaultMessage())
@@ -53,173 +73,130 @@ class GlobalExceptionHandler {
         String message = errors.isEmpty() ? "Validation failed" :
                 errors.values().iterator().next();
 
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                message,
-                LocalDateTime.now(),
-                errors.isEmpty() ? null : errors
-        );
-        return ResponseEntity.badRequest().body(error);
+        errorWriter.write(response, HttpStatus.BAD_REQUEST, message, errors.isEmpty() ? null : errors);
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
-    ResponseEntity<ErrorResponse> handleConstraintViolation(ConstraintViolationException ex) {
+    void handleConstraintViolation(ConstraintViolationException ex, HttpServletResponse response) throws IOException {
         Map<String, String> errors = new HashMap<>();
         ex.getConstraintViolations().forEach(violation -> {
             String field = violation.getPropertyPath().toString();
             errors.put(field, violation.getMessage());
         });
 
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                "Validation failed",
-                LocalDateTime.now(),
-                errors
-        );
-        return ResponseEntity.badRequest().body(error);
+        errorWriter.write(response, HttpStatus.BAD_REQUEST, "Validation failed", errors);
     }
 
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
-    ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+    void handleTypeMismatch(MethodArgumentTypeMismatchException ex, HttpServletResponse response) throws IOException {
         String message = String.format("Invalid value '%s' for parameter '%s'",
                 ex.getValue(), ex.getName());
 
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                message,
-                LocalDateTime.now()
-        );
-        return ResponseEntity.badRequest().body(error);
+        errorWriter.write(response, HttpStatus.BAD_REQUEST, message);
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
-    ResponseEntity<ErrorResponse> handleResourceNotFound(ResourceNotFoundException ex) {
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.NOT_FOUND.value(),
-                ex.getMessage(),
-                LocalDateTime.now()
-        );
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    void handleResourceNotFound(ResourceNotFoundException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler({InvalidCursorException.class, InvalidSearchQueryException.class})
+    void handleInvalidQuery(RuntimeException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler({PreconditionFailedException.class, ObjectOptimisticLockingFailureException.class})
+    void handlePreconditionFailed(RuntimeException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, STALE_EMPLOYEE);
     }
 
     @ExceptionHandler(BadCredentialsException.class)
-    ResponseEntity<ErrorResponse> handleBadCredentials(BadCredentialsException ex) {
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.UNAUTHORIZED.value(),
-                "Invalid username or password",
-                LocalDateTime.now()
-        );
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    void handleBadCredentials(BadCredentialsException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, BAD_CREDENTIALS);
     }
 
     @ExceptionHandler(AccountStatusException.class)
-    ResponseEntity<ErrorResponse> handleAccountStatus(AccountStatusException ex) {
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.FORBIDDEN.value(),
-                "Account is locked or disabled",
-                LocalDateTime.now()
-        );
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    void handleAccountStatus(AccountStatusException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, ACCOUNT_LOCKED);
     }
 
     @ExceptionHandler({AccessDeniedException.class, AuthorizationDeniedException.class})
-    ResponseEntity<ErrorResponse> handleAccessDenied(RuntimeException ex) {
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.FORBIDDEN.value(),
-                "You do not have permission to complete this action",
-                LocalDateTime.now()
-        );
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    void handleAccessDenied(RuntimeException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, ACCESS_DENIED);
     }
 
-    @ExceptionHandler(SignatureException.class)
-    ResponseEntity<ErrorResponse> handleInvalidJwt(SignatureException ex) {
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.UNAUTHORIZED.value(),
-                "Invalid JWT signature",
-                LocalDateTime.now()
-        );
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    @ExceptionHandler({SignatureException.class, io.jsonwebtoken.security.SignatureException.class})
+    void handleInvalidJwt(Exception ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, INVALID_SIGNATURE);
     }
 
     @ExceptionHandler(ExpiredJwtException.class)
-    ResponseEntity<ErrorResponse> handleExpiredJwt(ExpiredJwtException ex) {
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.UNAUTHORIZED.value(),
-                "JWT token has expired",
-                LocalDateTime.now()
-        );
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    void handleExpiredJwt(ExpiredJwtException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, EXPIRED_JWT);
     }
 
     @ExceptionHandler(MalformedJwtException.class)
-    ResponseEntity<ErrorResponse> handleMalformedJwt(MalformedJwtException ex) {
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.UNAUTHORIZED.value(),
-                "Malformed JWT token",
-                LocalDateTime.now()
-        );
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    void handleMalformedJwt(MalformedJwtException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, MALFORMED_JWT);
+    }
+
+    @ExceptionHandler(JwtException.class)
+    void handleOtherJwt(JwtException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, INVALID_JWT);
+    }
+
+    @ExceptionHandler(TokenRevokedException.class)
+    void handleRevokedJwt(TokenRevokedException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, REVOKED_JWT);
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    void handleInvalidRefreshToken(InvalidRefreshTokenException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, INVALID_REFRESH_TOKEN);
     }
 
     @ExceptionHandler(NoHandlerFoundException.class)
-    ResponseEntity<ErrorResponse> handleNotFound(NoHandlerFoundException ex) {
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.NOT_FOUND.value(),
-                "Endpoint not found: " + ex.getRequestURL(),
-                LocalDateTime.now()
-        );
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    void handleNotFound(NoHandlerFoundException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, HttpStatus.NOT_FOUND, "Endpoint not found: " + ex.getRequestURL());
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
-    ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+    void handleDataIntegrityViolation(DataIntegrityViolationException ex, HttpServletResponse response) throws IOException {
         String message = ex.getMessage();
 
         // Only handle unique constraint violations (the one thing DTO can't check)
         if (message != null && (message.contains("unique constraint") || message.contains("duplicate key"))) {
             if (message.toLowerCase().contains("email")) {
-                ErrorResponse error = new ErrorResponse(
-                        HttpStatus.CONFLICT.value(),
-                        "An account with this email already exists",
-                        LocalDateTime.now()
-                );
-                return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+                errorWriter.write(response, DUPLICATE_EMAIL);
+                return;
             }
-            ErrorResponse error = new ErrorResponse(
-                    HttpStatus.CONFLICT.value(),
-                    "Duplicate entry detected",
-                    LocalDateTime.now()
-            );
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+            errorWriter.write(response, DUPLICATE_ENTRY);
+            return;
         }
 
         // If we get here, something unexpected happened
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                "Invalid data provided",
-                LocalDateTime.now()
-        );
-        return ResponseEntity.badRequest().body(error);
+        errorWriter.write(response, INVALID_DATA);
+    }
+
+    @ExceptionHandler(HashingCapacityException.class)
+    void handleHashingCapacity(HashingCapacityException ex, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        errorWriter.write(response, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    void handleRateLimitExceeded(RateLimitExceededException ex, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        errorWriter.write(response, HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
     }
 
     @ExceptionHandler(SuperAdminException.class)
-    ResponseEntity<ErrorResponse> handleSuperAdminException(SuperAdminException ex) {
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.FORBIDDEN.value(),
-                ex.getMessage(),
-                LocalDateTime.now()
-        );
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    void handleSuperAdminException(SuperAdminException ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, HttpStatus.FORBIDDEN, ex.getMessage());
     }
 
     @ExceptionHandler(Exception.class)
-    ResponseEntity<ErrorResponse> handleGeneralException(Exception ex) {
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "An unexpected error occurred",
-                LocalDateTime.now()
-        );
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    void handleGeneralException(Exception ex, HttpServletResponse response) throws IOException {
+        errorWriter.write(response, UNEXPECTED);
     }
 }
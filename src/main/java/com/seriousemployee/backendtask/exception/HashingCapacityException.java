@@ -0,0 +1,14 @@
+package com.seriousemployee.backendtask.exception;
+
+public class HashingCapacityException extends StacklessException {
+    private final long retryAfterSeconds;
+
+    public HashingCapacityException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.seriousemployee.backendtask.exception;
+
+public class InvalidRefreshTokenException extends StacklessException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
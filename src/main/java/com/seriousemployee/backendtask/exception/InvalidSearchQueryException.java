@@ -0,0 +1,7 @@
+package com.seriousemployee.backendtask.exception;
+
+public class InvalidSearchQueryException extends StacklessException {
+    public InvalidSearchQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.seriousemployee.backendtask.exception;
+
+public class PreconditionFailedException extends StacklessException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.seriousemployee.backendtask.exception;
+
+public class RateLimitExceededException extends StacklessException {
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,6 +1,6 @@
 package com.seriousemployee.backendtask.exception;
 
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends StacklessException {
     public ResourceNotFoundException(String message) {
         super(message);
     }
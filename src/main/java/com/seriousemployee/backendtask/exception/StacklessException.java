@@ -0,0 +1,10 @@
+package com.seriousemployee.backendtask.exception;
+
+/**
+ * Base for expected domain errors that are turned into responses and never logged, so no stack trace is captured.
+ */
+public abstract class StacklessException extends RuntimeException {
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
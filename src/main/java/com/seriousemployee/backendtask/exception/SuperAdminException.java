@@ -1,6 +1,6 @@
 package com.seriousemployee.backendtask.exception;
 
-public class SuperAdminException extends RuntimeException {
+public class SuperAdminException extends StacklessException {
     public SuperAdminException(String message) {
         super(message);
     }
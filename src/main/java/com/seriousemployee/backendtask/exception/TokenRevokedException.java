@@ -0,0 +1,7 @@
+package com.seriousemployee.backendtask.exception;
+
+public class TokenRevokedException extends StacklessException {
+    public TokenRevokedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.seriousemployee.backendtask.repositories;
+
+import java.time.Instant;
+
+/**
+ * One change to an employee. {@code actorId} is the authenticated employee who made it, or {@code null} for
+ * self-registration and imports.
+ */
+public record AuditEvent(Instant occurredAt, Action action, Long employeeId, Long actorId, String details) {
+    public enum Action { REGISTER, IMPORT, UPDATE, PROMOTE, DEMOTE, DELETE, REVOKE_TOKENS }
+}
@@ -0,0 +1,30 @@
+package com.seriousemployee.backendtask.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+@Repository
+public class AuditRepository {
+    private static final String INSERT_SQL =
+            "insert into employee_audit (occurred_at, action, employee_id, actor_id, details) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<AuditEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setTimestamp(1, Timestamp.from(event.occurredAt()));
+            ps.setString(2, event.action().name());
+            ps.setObject(3, event.employeeId(), Types.BIGINT);
+            ps.setObject(4, event.actorId(), Types.BIGINT);
+            ps.setString(5, event.details());
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package com.seriousemployee.backendtask.repositories;
+
+/**
+ * Result of a conditional write for one requested id. {@code employee} and {@code tokenVersion} describe the row
+ * after the change and are only set for role changes that were applied, or left the row unchanged because it
+ * already had the role.
+ */
+public record EmployeeChange(Long id, Outcome outcome, EmployeeSummary employee, int tokenVersion) {
+    public enum Outcome { APPLIED, UNCHANGED, PROTECTED, NOT_FOUND, STALE }
+}
@@ -3,9 +3,38 @@ package com.seriousemployee.backendtask.repositories;
 import com.seriousemployee.backendtask.entities.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>, EmployeeRepositoryCustom {
     Optional<Employee> findByEmail(String username);
+
+    boolean existsByEmail(String email);
+
+    @Query("select new com.seriousemployee.backendtask.repositories.EmployeeSummary(e.id, e.name, e.email, e.role, e.createdAt, e.version) " +
+            "from Employee e where e.id = :id")
+    Optional<EmployeeSummary> findSummaryById(@Param("id") Long id);
+
+    @Query("select new com.seriousemployee.backendtask.repositories.EmployeeSummary(e.id, e.name, e.email, e.role, e.createdAt, e.version) " +
+            "from Employee e where e.email = :email")
+    Optional<EmployeeSummary> findSummaryByEmail(@Param("email") String email);
+
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select new com.seriousemployee.backendtask.repositories.EmployeeTokenVersion(e.id, e.tokenVersion, e.version) " +
+            "from Employee e where e.id = :id")
+    Optional<EmployeeTokenVersion> findTokenVersionById(@Param("id") Long id);
+
+    @Query("select new com.seriousemployee.backendtask.repositories.EmployeeTokenVersion(e.id, e.tokenVersion, e.version) from Employee e")
+    List<EmployeeTokenVersion> findAllTokenVersions();
+
+    @Modifying
+    @Query("update Employee e set e.tokenVersion = e.tokenVersion + 1 where e.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
 }
@@ -0,0 +1,50 @@
+package com.seriousemployee.backendtask.repositories;
+
+import com.seriousemployee.backendtask.entities.Employee;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface EmployeeRepositoryCustom {
+    /**
+     * Fetches at most {@code limit} matching rows as projections, without issuing a count query.
+     */
+    List<EmployeeSummary> findSummaries(Specification<Employee> spec, Sort sort, long offset, int limit);
+
+    /**
+     * Streams matching rows as projections through a server-side cursor, {@code fetchSize} rows at a time.
+     * Must be consumed, and closed, inside a transaction.
+     */
+    Stream<EmployeeSummary> streamSummaries(Specification<Employee> spec, Sort sort, int fetchSize);
+
+    /**
+     * Planner row estimate for the listing filters, taken from Postgres statistics instead of counting rows.
+     */
+    long estimateCount(String role, LocalDate before, LocalDate after);
+
+    /**
+     * Sets the role of every listed employee except the super admin, in one statement. Employees who already have the
+     * role are left alone and reported as unchanged. Token versions are only bumped when {@code revokeTokens} is set.
+     * When {@code expectedVersion} is not null, only rows still at that version are changed.
+     * Returns one change per id, in the given order.
+     */
+    List<EmployeeChange> changeRoles(Collection<Long> ids, String role, Long expectedVersion, boolean revokeTokens);
+
+    /**
+     * Deletes every listed employee in one statement. The super admin and employees holding one of
+     * {@code protectedRoles} are kept, except {@code exemptId}, which may be null. Returns one change per id,
+     * in the given order.
+     */
+    List<EmployeeChange> deleteUnprotected(Collection<Long> ids, Collection<String> protectedRoles, Long exemptId);
+
+    /**
+     * Substring and fuzzy match on name and email, served by the trigram indexes. Only the {@code maxResults} best
+     * matches are ranked, by similarity and then id; of those, at most {@code limit} rows after
+     * {@code (afterScore, afterId)} are returned. Pass a null {@code afterScore} for the first page.
+     */
+    List<EmployeeSearchHit> search(String query, Float afterScore, Long afterId, int limit, int maxResults);
+}
@@ -0,0 +1,271 @@
+package com.seriousemployee.backendtask.repositories;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seriousemployee.backendtask.entities.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+    // The outer select reads the statement snapshot, so rows touched by the CTE still count as found.
+    // Rows already in the target role are left alone and reported from the snapshot as they are
+    private static final String CHANGE_ROLES_SQL = """
+            with requested as (select id, ord from unnest(?::bigint[]) with ordinality as r(id, ord)),
+            changed as (
+                update employees e
+                set role = ?, token_version = e.token_version + case when ? then 1 else 0 end, version = e.version + 1
+                from requested r
+                where e.id = r.id and e.role <> 'SUPERADMIN' and e.role <> ? and (?::bigint is null or e.version = ?)
+                returning e.id, e.name, e.email, e.role, e.created_at, e.token_version, e.version)
+            select r.id, c.id is not null as applied, e.id is not null as found, e.role = 'SUPERADMIN' as protected,
+                   coalesce(c.name, e.name) as name, coalesce(c.email, e.email) as email,
+                   coalesce(c.role, e.role) as role, coalesce(c.created_at, e.created_at) as created_at,
+                   coalesce(c.token_version, e.token_version) as token_version, coalesce(c.version, e.version) as version
+            from requested r
+            left join changed c on c.id = r.id
+            left join employees e on e.id = r.id
+            order by r.ord
+            """;
+
+    private static final String DELETE_UNPROTECTED_SQL = """
+            with requested as (select id, ord from unnest(?::bigint[]) with ordinality as r(id, ord)),
+            removed as (
+                delete from employees e
+                using requested r
+                where e.id = r.id and e.role <> 'SUPERADMIN' and (e.role <> all(?::text[]) or e.id = ?)
+                returning e.id)
+            select r.id, d.id is not null as applied, e.id is not null as found
+            from requested r
+            left join removed d on d.id = r.id
+            left join employees e on e.id = r.id
+            order by r.ord
+            """;
+
+    // Every predicate is served by the trigram GIN indexes; ranking only sorts the capped candidate set
+    private static final String SEARCH_SQL = """
+            with ranked as (
+                select e.id, e.name, e.email, e.role, e.created_at, e.version,
+                       greatest(word_similarity(?, e.name), word_similarity(?, e.email)) as score
+                from employees e
+                where e.name ilike ? or e.email ilike ? or ? <% e.name or ? <% e.email
+                order by score desc, e.id
+                limit ?)
+            select id, name, email, role, created_at, version, score
+            from ranked
+            where ?::real is null or score < ?::real or (score = ?::real and id > ?)
+            order by score desc, id
+            limit ?
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    EmployeeRepositoryCustomImpl(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public List<EmployeeSummary> findSummaries(Specification<Employee> spec, Sort sort, long offset, int limit) {
+        return summaryQuery(spec, sort)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<EmployeeSummary> streamSummaries(Specification<Employee> spec, Sort sort, int fetchSize) {
+        return summaryQuery(spec, sort)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public long estimateCount(String role, LocalDate before, LocalDate after) {
+        // Same predicates as EmployeeSpecification.build, so the planner estimates the listing itself
+        StringBuilder sql = new StringBuilder("explain (format json) select 1 from employees where true");
+        List<Object> args = new ArrayList<>();
+
+        if (role != null && !role.isEmpty()) {
+            sql.append(" and role = ?");
+            args.add(role);
+        }
+        if (before != null) {
+            sql.append(" and created_at <= ?");
+            args.add(Timestamp.valueOf(before.atStartOfDay()));
+        }
+        if (after != null) {
+            sql.append(" and created_at > ?");
+            args.add(Timestamp.valueOf(after.atStartOfDay()));
+        }
+
+        String plan = jdbcTemplate.queryForObject(sql.toString(), String.class, args.toArray());
+        try {
+            JsonNode rows = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            return rows.asLong();
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected query plan format", e);
+        }
+    }
+
+    @Override
+    public List<EmployeeChange> changeRoles(Collection<Long> ids, String role, Long expectedVersion, boolean revokeTokens) {
+        return jdbcTemplate.query(CHANGE_ROLES_SQL,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+                    ps.setString(2, role);
+                    ps.setBoolean(3, revokeTokens);
+                    ps.setString(4, role);
+                    if (expectedVersion != null) {
+                        ps.setLong(5, expectedVersion);
+                        ps.setLong(6, expectedVersion);
+                    }
+                    else {
+                        ps.setNull(5, Types.BIGINT);
+                        ps.setNull(6, Types.BIGINT);
+                    }
+                },
+                (rs, rowNum) -> {
+                    Long id = rs.getLong("id");
+                    EmployeeChange.Outcome outcome = EmployeeChange.Outcome.APPLIED;
+                    if (!rs.getBoolean("applied")) {
+                        if (!rs.getBoolean("found") || rs.getBoolean("protected")) {
+                            return notApplied(id, rs.getBoolean("found"));
+                        }
+                        boolean unchanged = role.equals(rs.getString("role"))
+                                && (expectedVersion == null || rs.getLong("version") == expectedVersion);
+                        if (!unchanged) {
+                            return new EmployeeChange(id, EmployeeChange.Outcome.STALE, null, 0);
+                        }
+                        outcome = EmployeeChange.Outcome.UNCHANGED;
+                    }
+                    EmployeeSummary employee = new EmployeeSummary(id,
+                            rs.getString("name"),
+                            rs.getString("email"),
+                            rs.getString("role"),
+                            rs.getTimestamp("created_at").toLocalDateTime(),
+                            rs.getLong("version"));
+                    return new EmployeeChange(id, outcome, employee, rs.getInt("token_version"));
+                });
+    }
+
+    @Override
+    public List<EmployeeChange> deleteUnprotected(Collection<Long> ids, Collection<String> protectedRoles, Long exemptId) {
+        return jdbcTemplate.query(DELETE_UNPROTECTED_SQL,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+                    ps.setArray(2, ps.getConnection().createArrayOf("text", protectedRoles.toArray()));
+                    if (exemptId != null) {
+                        ps.setLong(3, exemptId);
+                    }
+                    else {
+                        ps.setNull(3, Types.BIGINT);
+                    }
+                },
+                (rs, rowNum) -> {
+                    Long id = rs.getLong("id");
+                    return rs.getBoolean("applied")
+                            ? new EmployeeChange(id, EmployeeChange.Outcome.APPLIED, null, 0)
+                            : notApplied(id, rs.getBoolean("found"));
+                });
+    }
+
+    @Override
+    public List<EmployeeSearchHit> search(String query, Float afterScore, Long afterId, int limit, int maxResults) {
+        String pattern = "%" + escapeLike(query) + "%";
+        return jdbcTemplate.query(SEARCH_SQL,
+                ps -> {
+                    ps.setString(1, query);
+                    ps.setString(2, query);
+                    ps.setString(3, pattern);
+                    ps.setString(4, pattern);
+                    ps.setString(5, query);
+                    ps.setString(6, query);
+                    ps.setInt(7, maxResults);
+                    if (afterScore != null) {
+                        ps.setFloat(8, afterScore);
+                        ps.setFloat(9, afterScore);
+                        ps.setFloat(10, afterScore);
+                        ps.setLong(11, afterId);
+                    }
+                    else {
+                        ps.setNull(8, Types.REAL);
+                        ps.setNull(9, Types.REAL);
+                        ps.setNull(10, Types.REAL);
+                        ps.setNull(11, Types.BIGINT);
+                    }
+                    ps.setInt(12, limit);
+                },
+                (rs, rowNum) -> new EmployeeSearchHit(
+                        new EmployeeSummary(rs.getLong("id"),
+                                rs.getString("name"),
+                                rs.getString("email"),
+                                rs.getString("role"),
+                                rs.getTimestamp("created_at").toLocalDateTime(),
+                                rs.getLong("version")),
+                        rs.getFloat("score")));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static EmployeeChange notApplied(Long id, boolean found) {
+        return new EmployeeChange(id, found ? EmployeeChange.Outcome.PROTECTED : EmployeeChange.Outcome.NOT_FOUND, null, 0);
+    }
+
+    private TypedQuery<EmployeeSummary> summaryQuery(Specification<Employee> spec, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeSummary> query = builder.createQuery(EmployeeSummary.class);
+        Root<Employee> root = query.from(Employee.class);
+
+        query.select(builder.construct(EmployeeSummary.class,
+                root.get("id"),
+                root.get("name"),
+                root.get("email"),
+                root.get("role"),
+                root.get("createdAt"),
+                root.get("version")));
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, root, builder));
+
+        return entityManager.createQuery(query);
+    }
+
+    private static List<Order> toOrders(Sort sort, Root<Employee> root, CriteriaBuilder builder) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(order.isAscending()
+                    ? builder.asc(root.get(order.getProperty()))
+                    : builder.desc(root.get(order.getProperty())));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,6 @@
+package com.seriousemployee.backendtask.repositories;
+
+/**
+ * Search result with its trigram similarity to the query, between 0 and 1.
+ */
+public record EmployeeSearchHit(EmployeeSummary employee, float score) { }
@@ -0,0 +1,28 @@
+package com.seriousemployee.backendtask.repositories;
+
+import com.seriousemployee.backendtask.entities.Employee;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the columns exposed by the API. Never carries the password hash and is never
+ * registered in the persistence context.
+ */
+public record EmployeeSummary(
+        Long id,
+        String name,
+        String email,
+        String role,
+        LocalDateTime createdAt,
+        long version
+) {
+    public static EmployeeSummary fromEntity(Employee employee) {
+        return new EmployeeSummary(
+                employee.getId(),
+                employee.getName(),
+                employee.getEmail(),
+                employee.getRole(),
+                employee.getCreatedAt(),
+                employee.getVersion());
+    }
+}
@@ -0,0 +1,7 @@
+package com.seriousemployee.backendtask.repositories;
+
+/**
+ * Token version and row version of one employee. Tokens carry both: the token version says whether the token is
+ * revoked, the row version whether its claims still describe the employee.
+ */
+public record EmployeeTokenVersion(Long id, int tokenVersion, long version) { }
@@ -0,0 +1,90 @@
+package com.seriousemployee.backendtask.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Refresh tokens, stored by hash. A token is used at most once: rotating it marks it used and hands out its
+ * successor in the same family. Used tokens are kept until they expire, so a replayed one can still be recognised.
+ */
+@Repository
+public class RefreshTokenRepository {
+    // Marking the token used and reading its employee is one statement, so two concurrent rotations cannot both win
+    private static final String USE_SQL = """
+            with used as (
+                update refresh_tokens t
+                set used_at = now()
+                where t.token_hash = ? and t.used_at is null and t.expires_at > now()
+                returning t.family_id, t.employee_id)
+            select u.family_id, e.id, e.email, e.role, e.token_version, e.version
+            from used u
+            join employees e on e.id = u.employee_id
+            """;
+
+    private static final String DELETE_FAMILY_OF_SQL = """
+            delete from refresh_tokens
+            where family_id = (select family_id from refresh_tokens where token_hash = ? and employee_id = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RefreshTokenRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(byte[] tokenHash, UUID familyId, Long employeeId, Instant expiresAt) {
+        jdbcTemplate.update("insert into refresh_tokens (token_hash, family_id, employee_id, expires_at) values (?, ?, ?, ?)",
+                tokenHash, familyId, employeeId, Timestamp.from(expiresAt));
+    }
+
+    /**
+     * Marks an unused, unexpired token as used and returns who it was issued to.
+     */
+    public Optional<Rotation> use(byte[] tokenHash) {
+        List<Rotation> rotations = jdbcTemplate.query(USE_SQL,
+                (rs, rowNum) -> new Rotation(
+                        rs.getObject("family_id", UUID.class),
+                        rs.getLong("id"),
+                        rs.getString("email"),
+                        rs.getString("role"),
+                        rs.getInt("token_version"),
+                        rs.getLong("version")),
+                (Object) tokenHash);
+        return rotations.stream().findFirst();
+    }
+
+    /**
+     * Family of a token that was already used, if this is one.
+     */
+    public Optional<UUID> findUsedFamily(byte[] tokenHash) {
+        return jdbcTemplate.query("select family_id from refresh_tokens where token_hash = ? and used_at is not null",
+                (rs, rowNum) -> rs.getObject("family_id", UUID.class), (Object) tokenHash).stream().findFirst();
+    }
+
+    /**
+     * Deletes the family of the token, provided the token belongs to the employee.
+     */
+    public int deleteFamilyOf(byte[] tokenHash, Long employeeId) {
+        return jdbcTemplate.update(DELETE_FAMILY_OF_SQL, tokenHash, employeeId);
+    }
+
+    public int deleteFamily(UUID familyId) {
+        return jdbcTemplate.update("delete from refresh_tokens where family_id = ?", familyId);
+    }
+
+    public int deleteByEmployee(Long employeeId) {
+        return jdbcTemplate.update("delete from refresh_tokens where employee_id = ?", employeeId);
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update("delete from refresh_tokens where expires_at <= now()");
+    }
+
+    public record Rotation(UUID familyId, Long employeeId, String email, String role, int tokenVersion, long version) { }
+}
@@ -0,0 +1,68 @@
+package com.seriousemployee.backendtask.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket limits for the authentication endpoints, keyed by client IP and by target email. Both checks run
+ * before any password is hashed or verified.
+ */
+@Component
+public class AuthRateLimiter {
+    public enum Endpoint { LOGIN, REGISTER }
+
+    private final boolean enabled;
+    private final Map<Endpoint, TokenBucketRateLimiter> byIp = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, TokenBucketRateLimiter> byEmail = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Counter> rejectedByIp = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Counter> rejectedByEmail = new EnumMap<>(Endpoint.class);
+
+    public AuthRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        register(Endpoint.LOGIN, properties.getLogin(), meterRegistry);
+        register(Endpoint.REGISTER, properties.getRegister(), meterRegistry);
+    }
+
+    /**
+     * Takes a token for the client IP. Returns 0 when granted, otherwise the seconds to wait before retrying.
+     */
+    public long acquireForIp(Endpoint endpoint, String ip) {
+        return enabled ? toRetryAfterSeconds(byIp.get(endpoint).tryAcquire(ip), rejectedByIp.get(endpoint)) : 0;
+    }
+
+    /**
+     * Takes a token for the target email. Returns 0 when granted, otherwise the seconds to wait before retrying.
+     */
+    public long acquireForEmail(Endpoint endpoint, String email) {
+        return enabled ? toRetryAfterSeconds(byEmail.get(endpoint).tryAcquire(email.toLowerCase(Locale.ROOT)), rejectedByEmail.get(endpoint)) : 0;
+    }
+
+    private void register(Endpoint endpoint, RateLimitProperties.Endpoint limits, MeterRegistry meterRegistry) {
+        String name = endpoint.name().toLowerCase(Locale.ROOT);
+        TokenBucketRateLimiter ipLimiter = new TokenBucketRateLimiter(limits.getPerIp().getCapacity(), limits.getPerIp().getRefillPerMinute());
+        TokenBucketRateLimiter emailLimiter = new TokenBucketRateLimiter(limits.getPerEmail().getCapacity(), limits.getPerEmail().getRefillPerMinute());
+
+        byIp.put(endpoint, ipLimiter);
+        byEmail.put(endpoint, emailLimiter);
+        rejectedByIp.put(endpoint, meterRegistry.counter("app.auth.rate_limited", "endpoint", name, "key", "ip"));
+        rejectedByEmail.put(endpoint, meterRegistry.counter("app.auth.rate_limited", "endpoint", name, "key", "email"));
+        meterRegistry.gauge("app.auth.rate_limit.buckets", List.of(Tag.of("endpoint", name), Tag.of("key", "ip")), ipLimiter, TokenBucketRateLimiter::size);
+        meterRegistry.gauge("app.auth.rate_limit.buckets", List.of(Tag.of("endpoint", name), Tag.of("key", "email")), emailLimiter, TokenBucketRateLimiter::size);
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos, Counter rejections) {
+        if (waitNanos == 0) {
+            return 0;
+        }
+        rejections.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+}
@@ -0,0 +1,43 @@
+package com.seriousemployee.backendtask.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the BCrypt cost factor whose hashing time on this machine is closest to a target latency.
+ * Each additional cost step doubles the work, so one timed sample is enough to extrapolate.
+ * <p>
+ * Only used with {@code security.password.bcrypt-strength: 0}, to find the cost to pin for a machine. The result
+ * depends on the hardware and its load at startup, so it is logged rather than relied on across restarts.
+ */
+final class BCryptCalibration {
+    private static final Logger log = LoggerFactory.getLogger(BCryptCalibration.class);
+
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 16;
+    private static final int SAMPLE_STRENGTH = 10;
+    private static final int SAMPLES = 3;
+
+    private BCryptCalibration() {}
+
+    static int strengthFor(long targetMillis) {
+        BCryptPasswordEncoder sampleEncoder = new BCryptPasswordEncoder(SAMPLE_STRENGTH);
+        sampleEncoder.encode("calibration-warmup");
+
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            sampleEncoder.encode("calibration-sample");
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        double sampleMillis = bestNanos / 1_000_000.0;
+        int strength = SAMPLE_STRENGTH + (int) Math.round(Math.log(targetMillis / sampleMillis) / Math.log(2));
+        int clamped = Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, strength));
+
+        log.info("BCrypt cost {} takes {} ms here, using cost {} for a {} ms target",
+                SAMPLE_STRENGTH, String.format("%.1f", sampleMillis), clamped, targetMillis);
+        return clamped;
+    }
+}
@@ -10,29 +10,66 @@ import java.util.List;
 
 public class EmployeeDetails implements UserDetails {
 
-    private final Employee employee;
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final String role;
+    private final int tokenVersion;
+    private final long version;
 
     public EmployeeDetails(Employee employee) {
-        this.employee = employee;
+        this(employee.getId(), employee.getEmail(), employee.getPassword(), employee.getRole(),
+                employee.getTokenVersion(), employee.getVersion());
+    }
+
+    /**
+     * Principal rebuilt from signed token claims. It carries no password hash.
+     */
+    public EmployeeDetails(Long id, String email, String role, int tokenVersion, long version) {
+        this(id, email, null, role, tokenVersion, version);
+    }
+
+    private EmployeeDetails(Long id, String email, String password, String role, int tokenVersion, long version) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+        this.version = version;
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority("ROLE_"+ employee.getRole()));
+        return List.of(new SimpleGrantedAuthority("ROLE_"+ role));
     }
 
     public Long getId() {
-        return employee.getId();
+        return id;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    /**
+     * Row version of the employee the principal was built from.
+     */
+    public long getVersion() {
+        return version;
     }
 
     @Override
     public String getPassword() {
-        return employee.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return employee.getEmail();
+        return email;
     }
 
     @Override
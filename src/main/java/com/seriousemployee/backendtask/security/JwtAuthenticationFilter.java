@@ -1,16 +1,21 @@
 package com.seriousemployee.backendtask.security;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.seriousemployee.backendtask.dto.ErrorResponse;
+import com.seriousemployee.backendtask.config.ReplicaDataSource;
+import com.seriousemployee.backendtask.exception.ErrorResponseWriter;
+import com.seriousemployee.backendtask.exception.TokenRevokedException;
+import com.seriousemployee.backendtask.repositories.EmployeeRepository;
 import com.seriousemployee.backendtask.services.JwtService;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -23,21 +28,45 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final ErrorResponseWriter.PreparedError AUTHENTICATION_FAILED =
+            ErrorResponseWriter.prepare(HttpStatus.UNAUTHORIZED, "Authentication failed");
 
     private final JwtService jwtService;
     private final ObjectProvider<UserDetailsService> userDetailsServiceProvider;
+    private final EmployeeRepository employeeRepository;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
     private final HandlerExceptionResolver handlerExceptionResolver;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final Timer claimsLookups;
+    private final Timer databaseLookups;
+    private final Counter acceptedTokens;
+    private final Counter rejectedTokens;
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
             ObjectProvider<UserDetailsService> userDetailsService,
-            HandlerExceptionResolver handlerExceptionResolver){
+            EmployeeRepository employeeRepository,
+            TokenVersionRegistry tokenVersionRegistry,
+            TokenRevocationRegistry tokenRevocationRegistry,
+            HandlerExceptionResolver handlerExceptionResolver,
+            ErrorResponseWriter errorResponseWriter,
+            MeterRegistry meterRegistry){
         this.jwtService = jwtService;
         this.userDetailsServiceProvider = userDetailsService;
+        this.employeeRepository = employeeRepository;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
         this.handlerExceptionResolver = handlerExceptionResolver;
+        this.errorResponseWriter = errorResponseWriter;
+        this.claimsLookups = lookupTimer(meterRegistry, "claims");
+        this.databaseLookups = lookupTimer(meterRegistry, "database");
+        this.acceptedTokens = meterRegistry.counter("app.auth.tokens", "outcome", "accepted");
+        this.rejectedTokens = meterRegistry.counter("app.auth.tokens", "outcome", "rejected");
     }
 
     @Override
@@ -55,14 +84,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
+            final Claims claims = jwtService.verifyToken(jwt);
+            final String userEmail = claims.getSubject();
+
+            if (tokenRevocationRegistry.isRevoked(claims.getId())) {
+                throw new TokenRevokedException("Token has been revoked");
+            }
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
             if (userEmail != null && authentication == null) {
-                UserDetails userDetails = userDetailsServiceProvider.getObject().loadUserByUsername(userEmail);
+                UserDetails userDetails = resolvePrincipal(claims, userEmail);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -71,40 +105,90 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    acceptedTokens.increment();
                 }
             }
 
             filterChain.doFilter(request, response);
         }
-        catch (JwtException e) {
+        catch (JwtException | TokenRevokedException e) {
+            rejectedTokens.increment();
             handlerExceptionResolver.resolveException(request, response, null, e);
         }
         catch (Exception e) {
-            sendErrorResponse(response);
+            rejectedTokens.increment();
+            errorResponseWriter.write(response, AUTHENTICATION_FAILED);
+        }
+    }
+
+    /**
+     * Builds the principal straight from the token claims while both versions are current. A token whose token
+     * version has moved on (logout everywhere, demotion, deleted account) is revoked. After a promotion or profile
+     * change only the row version has moved on: the token stays valid and the employee is reloaded from the primary
+     * until the client refreshes it. The database is also consulted for tokens without principal claims.
+     */
+    private UserDetails resolvePrincipal(Claims claims, String userEmail) {
+        long start = System.nanoTime();
+        EmployeeDetails fromClaims = jwtService.toEmployeeDetails(claims);
+
+        if (fromClaims != null) {
+            TokenVersionRegistry.Status status = tokenVersionRegistry.check(
+                    fromClaims.getId(), fromClaims.getTokenVersion(), fromClaims.getVersion());
+            if (status != TokenVersionRegistry.Status.STALE) {
+                claimsLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (status == TokenVersionRegistry.Status.REVOKED) {
+                    throw new TokenRevokedException("Token has been revoked");
+                }
+                return fromClaims;
+            }
+            return reload(fromClaims, start);
+        }
+
+        EmployeeDetails fromDatabase;
+        try {
+            // Runs before ReadYourWritesFilter knows who is asking, so a lagging replica could still show the old role
+            fromDatabase = ReplicaDataSource.onPrimary(
+                    () -> (EmployeeDetails) userDetailsServiceProvider.getObject().loadUserByUsername(userEmail));
+        }
+        finally {
+            databaseLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return fromDatabase;
+    }
+
+    private EmployeeDetails reload(EmployeeDetails fromClaims, long start) {
+        EmployeeDetails current;
+        try {
+            current = ReplicaDataSource.onPrimary(() -> employeeRepository.findById(fromClaims.getId()))
+                    .map(EmployeeDetails::new)
+                    .orElse(null);
         }
+        finally {
+            databaseLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        // Revoked after the registry was consulted
+        if (current == null || current.getTokenVersion() != fromClaims.getTokenVersion()) {
+            throw new TokenRevokedException("Token has been revoked");
+        }
+        tokenVersionRegistry.update(current.getId(), current.getTokenVersion(), current.getVersion());
+        return current;
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("app.auth.principal.lookup")
+                .description("Resolving the authenticated employee for a bearer token")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     private boolean isPublicPath(HttpServletRequest request) {
         String path = request.getServletPath();
         return path.startsWith("/api/v1/auth/")
+                || path.equals("/.well-known/jwks.json")
                 || path.startsWith("/swagger-ui")
                 || path.startsWith("/v3/api-docs")
                 || path.startsWith("/webjars")
                 || path.startsWith("/swagger-resources");
     }
-
-
-    private void sendErrorResponse(HttpServletResponse response) throws IOException {
-        response.setStatus(HttpStatus.UNAUTHORIZED.value());
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-
-        ErrorResponse errorResponse = new ErrorResponse(
-                HttpStatus.UNAUTHORIZED.value(),
-                "Authentication failed",
-                java.time.LocalDateTime.now()
-        );
-
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.writeValue(response.getOutputStream(), errorResponse);
-    }
 }
@@ -0,0 +1,246 @@
+package com.seriousemployee.backendtask.security;
+
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signing and verification keys for access tokens. With {@code HS256} tokens are signed with the shared secret
+ * as before. With {@code EdDSA} (Ed25519) or {@code ES256} they are signed with the active private key and carry
+ * its {@code kid}; verification looks the key up by {@code kid} in memory, and the public keys are published as a
+ * JWKS so other services can verify tokens offline.
+ * <p>
+ * Keys come from {@code security.jwt.signing.keys}. Without configured keys a key pair is generated at startup and
+ * rotated on an interval. The next key is published one interval before it signs, and retired keys keep verifying
+ * until every token they signed has expired. Generated keys live in one instance only.
+ */
+@Component
+public class JwtKeyRing {
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private final SecretKey hmacKey;
+    private final SignatureAlgorithm algorithm;
+    private final boolean acceptHmac;
+    private final boolean generated;
+    private final long retainMillis;
+
+    private volatile SigningKey active;
+    private volatile SigningKey next;
+    // Replaced as a whole on rotation, so lookups never lock
+    private volatile Map<String, PublicKey> verificationKeys;
+    private volatile Map<String, Long> retiredUntil = Map.of();
+    private volatile Map<String, Object> jwks;
+
+    @Autowired
+    public JwtKeyRing(@Value("${security.jwt.secret-key}") String secretKey,
+                      @Value("${security.jwt.expiration}") long tokenLifetimeMillis,
+                      JwtSigningProperties properties) {
+        this.hmacKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.algorithm = signatureAlgorithm(properties.getAlgorithm());
+        this.acceptHmac = algorithm == null || properties.isAcceptHmac();
+        this.generated = algorithm != null && properties.getKeys().isEmpty();
+        this.retainMillis = tokenLifetimeMillis;
+
+        if (algorithm == null) {
+            this.verificationKeys = Map.of();
+        }
+        else if (generated) {
+            this.active = generate();
+            this.next = generate();
+            this.verificationKeys = withCurrentKeys(new HashMap<>());
+            log.warn("No {} signing keys configured, generated key {}. Tokens only verify on this instance", algorithm.getId(), active.kid());
+        }
+        else {
+            loadConfigured(properties);
+        }
+        publish();
+    }
+
+    /**
+     * Shared-secret ring, as used before asymmetric signing.
+     */
+    public static JwtKeyRing hmac(String secretKey, long tokenLifetimeMillis) {
+        return new JwtKeyRing(secretKey, tokenLifetimeMillis, new JwtSigningProperties());
+    }
+
+    /**
+     * Ring with a generated key pair for {@code EdDSA} or {@code ES256}.
+     */
+    public static JwtKeyRing generated(String secretKey, long tokenLifetimeMillis, String algorithm) {
+        JwtSigningProperties properties = new JwtSigningProperties();
+        properties.setAlgorithm(algorithm);
+        return new JwtKeyRing(secretKey, tokenLifetimeMillis, properties);
+    }
+
+    public JwtBuilder sign(JwtBuilder builder) {
+        if (algorithm == null) {
+            return builder.signWith(hmacKey, Jwts.SIG.HS256);
+        }
+        SigningKey key = active;
+        return builder.header().keyId(key.kid()).and()
+                .signWith(key.privateKey(), algorithm);
+    }
+
+    /**
+     * Resolves the verification key of a token from its header. Tokens without a {@code kid} were signed with the
+     * shared secret and are accepted while {@code security.jwt.signing.accept-hmac} is on.
+     */
+    public Key locate(Header header) {
+        String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (kid == null) {
+            if (acceptHmac) {
+                return hmacKey;
+            }
+            throw new SignatureException("Token has no key id");
+        }
+
+        PublicKey key = verificationKeys.get(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Public keys as a JWK Set. Empty when tokens are signed with the shared secret.
+     */
+    public Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    public String getAlgorithm() {
+        return algorithm == null ? Jwts.SIG.HS256.getId() : algorithm.getId();
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.signing.rotation-interval-ms:86400000}",
+            initialDelayString = "${security.jwt.signing.rotation-interval-ms:86400000}")
+    public synchronized void rotate() {
+        if (!generated) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, Long> retired = new HashMap<>();
+        retiredUntil.forEach((kid, until) -> {
+            if (until > now) {
+                retired.put(kid, until);
+            }
+        });
+        retired.put(active.kid(), now + retainMillis);
+
+        Map<String, PublicKey> keys = new HashMap<>(verificationKeys);
+        keys.keySet().retainAll(retired.keySet());
+
+        active = next;
+        next = generate();
+        retiredUntil = Map.copyOf(retired);
+        verificationKeys = withCurrentKeys(keys);
+        publish();
+        log.info("Rotated JWT signing key to {}", active.kid());
+    }
+
+    private void loadConfigured(JwtSigningProperties properties) {
+        Map<String, PublicKey> keys = new HashMap<>();
+        SigningKey signing = null;
+        // An unset JWT_ACTIVE_KID binds as an empty string
+        String activeKid = StringUtils.hasText(properties.getActiveKid()) ? properties.getActiveKid() : null;
+
+        for (JwtSigningProperties.Key configured : properties.getKeys()) {
+            PublicKey publicKey = (PublicKey) decode(configured.getPublicKey(), true);
+            String kid = StringUtils.hasText(configured.getKid()) ? configured.getKid() : thumbprint(publicKey);
+            keys.put(kid, publicKey);
+
+            boolean wanted = activeKid == null ? signing == null : kid.equals(activeKid);
+            if (wanted && configured.getPrivateKey() != null) {
+                signing = new SigningKey(kid, (PrivateKey) decode(configured.getPrivateKey(), false), publicKey);
+            }
+        }
+
+        if (signing == null) {
+            throw new IllegalStateException("No private key configured for the active JWT signing key");
+        }
+        this.active = signing;
+        this.verificationKeys = Map.copyOf(keys);
+    }
+
+    private Map<String, PublicKey> withCurrentKeys(Map<String, PublicKey> keys) {
+        keys.put(active.kid(), active.publicKey());
+        keys.put(next.kid(), next.publicKey());
+        return Map.copyOf(keys);
+    }
+
+    private void publish() {
+        List<Map<String, Object>> keys = new ArrayList<>(verificationKeys.size());
+        verificationKeys.forEach((kid, key) -> keys.add(new LinkedHashMap<>(Jwks.builder()
+                .key(key)
+                .id(kid)
+                .algorithm(algorithm.getId())
+                .publicKeyUse("sig")
+                .build())));
+        jwks = Map.of("keys", List.copyOf(keys));
+    }
+
+    private SigningKey generate() {
+        KeyPair pair = algorithm == Jwts.SIG.EdDSA
+                ? Jwks.CRV.Ed25519.keyPair().build()
+                : algorithm.keyPair().build();
+        return new SigningKey(thumbprint(pair.getPublic()), pair.getPrivate(), pair.getPublic());
+    }
+
+    private Key decode(String encoded, boolean publicKey) {
+        String base64 = encoded.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        byte[] der = Base64.getDecoder().decode(base64);
+        try {
+            KeyFactory factory = KeyFactory.getInstance(algorithm == Jwts.SIG.EdDSA ? "Ed25519" : "EC");
+            return publicKey
+                    ? factory.generatePublic(new X509EncodedKeySpec(der))
+                    : factory.generatePrivate(new PKCS8EncodedKeySpec(der));
+        }
+        catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid " + algorithm.getId() + " key in security.jwt.signing.keys", e);
+        }
+    }
+
+    private static String thumbprint(PublicKey key) {
+        return Jwks.builder().key(key).idFromThumbprint().build().getId();
+    }
+
+    private static SignatureAlgorithm signatureAlgorithm(String name) {
+        return switch (name.toUpperCase()) {
+            case "HS256" -> null;
+            case "EDDSA", "ED25519" -> Jwts.SIG.EdDSA;
+            case "ES256" -> Jwts.SIG.ES256;
+            default -> throw new IllegalStateException("Unsupported JWT signing algorithm: " + name);
+        };
+    }
+
+    private record SigningKey(String kid, PrivateKey privateKey, PublicKey publicKey) { }
+}
@@ -0,0 +1,99 @@
+package com.seriousemployee.backendtask.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "security.jwt.signing")
+public class JwtSigningProperties {
+    private String algorithm = "HS256";
+    private String activeKid;
+    private List<Key> keys = new ArrayList<>();
+    private long rotationIntervalMs = 86400000;
+    private boolean acceptHmac = true;
+    private long jwksMaxAgeSeconds = 3600;
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public List<Key> getKeys() {
+        return keys;
+    }
+
+    public long getRotationIntervalMs() {
+        return rotationIntervalMs;
+    }
+
+    public boolean isAcceptHmac() {
+        return acceptHmac;
+    }
+
+    public long getJwksMaxAgeSeconds() {
+        return jwksMaxAgeSeconds;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public void setActiveKid(String activeKid) {
+        this.activeKid = activeKid;
+    }
+
+    public void setKeys(List<Key> keys) {
+        this.keys = keys;
+    }
+
+    public void setRotationIntervalMs(long rotationIntervalMs) {
+        this.rotationIntervalMs = rotationIntervalMs;
+    }
+
+    public void setAcceptHmac(boolean acceptHmac) {
+        this.acceptHmac = acceptHmac;
+    }
+
+    public void setJwksMaxAgeSeconds(long jwksMaxAgeSeconds) {
+        this.jwksMaxAgeSeconds = jwksMaxAgeSeconds;
+    }
+
+    /**
+     * A configured key pair, both halves base64 DER or PEM. Keys without a private half only verify.
+     */
+    public static class Key {
+        private String kid;
+        private String privateKey;
+        private String publicKey;
+
+        public String getKid() {
+            return kid;
+        }
+
+        public String getPrivateKey() {
+            return privateKey;
+        }
+
+        public String getPublicKey() {
+            return publicKey;
+        }
+
+        public void setKid(String kid) {
+            this.kid = kid;
+        }
+
+        public void setPrivateKey(String privateKey) {
+            this.privateKey = privateKey;
+        }
+
+        public void setPublicKey(String publicKey) {
+            this.publicKey = publicKey;
+        }
+    }
+}
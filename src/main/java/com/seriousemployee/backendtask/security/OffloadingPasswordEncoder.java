@@ -0,0 +1,82 @@
+package com.seriousemployee.backendtask.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs encoding and verification of the wrapped encoder on the {@link PasswordHashingExecutor} pool.
+ * Time spent waiting for a pool thread and time spent hashing are recorded separately.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final Timer queueWait;
+    private final Timer encoding;
+    private final Timer matching;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor hashingExecutor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.hashingExecutor = hashingExecutor;
+        this.queueWait = Timer.builder("app.password.queue.wait")
+                .description("Time a password task waited for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.encoding = hashingTimer(meterRegistry, "encode");
+        this.matching = hashingTimer(meterRegistry, "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hashingExecutor.run(timed(encoding, () -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hashingExecutor.run(timed(matching, () -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Encodes a batch of passwords in parallel on the hashing pool, preserving order.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<Callable<String>> tasks = new ArrayList<>(rawPasswords.size());
+        for (CharSequence rawPassword : rawPasswords) {
+            tasks.add(timed(encoding, () -> delegate.encode(rawPassword)));
+        }
+        return hashingExecutor.runAll(tasks);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only inspects the hash prefix, no need to leave the calling thread
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> Callable<T> timed(Timer timer, Callable<T> task) {
+        long submitted = System.nanoTime();
+        return () -> {
+            long started = System.nanoTime();
+            queueWait.record(started - submitted, TimeUnit.NANOSECONDS);
+            try {
+                return task.call();
+            }
+            finally {
+                timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private static Timer hashingTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("app.password.hashing")
+                .description("BCrypt hashing and verification on the hashing pool")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
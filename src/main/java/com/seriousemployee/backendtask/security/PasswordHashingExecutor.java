@@ -0,0 +1,149 @@
+package com.seriousemployee.backendtask.security;
+
+import com.seriousemployee.backendtask.exception.HashingCapacityException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated, core-sized pool for CPU-bound password hashing, so a login burst cannot occupy every request thread.
+ * Callers wait a bounded time; when the pool is saturated they get a {@link HashingCapacityException}
+ * instead of queueing indefinitely.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+    private static final long REJECTED_BACKOFF_MILLIS = 10;
+
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+
+    public PasswordHashingExecutor(@Value("${security.password.hashing.pool-size:0}") int poolSize,
+                                   @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${security.password.hashing.max-wait-ms:2000}") long maxWaitMillis,
+                                   @Value("${security.password.hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        }
+        catch (RejectedExecutionException e) {
+            throw saturated();
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            // Keeps a task that is still queued from starting. A hash already running is not stopped, since BCrypt
+            // never checks for interruption; it finishes and its result is dropped
+            future.cancel(true);
+            throw saturated();
+        }
+        catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+        catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Runs all tasks in parallel and returns their results in order. At most one task per pool thread is in flight,
+     * and the caller waits for capacity instead of failing fast, so batch work leaves the queue to interactive requests.
+     */
+    public <T> List<T> runAll(List<? extends Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        Deque<Future<T>> inFlight = new ArrayDeque<>();
+
+        try {
+            for (Callable<T> task : tasks) {
+                if (inFlight.size() >= getPoolSize()) {
+                    results.add(inFlight.removeFirst().get());
+                }
+                inFlight.addLast(submitWhenAccepted(task));
+            }
+            while (!inFlight.isEmpty()) {
+                results.add(inFlight.removeFirst().get());
+            }
+            return results;
+        }
+        catch (InterruptedException e) {
+            inFlight.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+        catch (ExecutionException e) {
+            inFlight.forEach(future -> future.cancel(true));
+            throw unwrap(e);
+        }
+    }
+
+    public int getPoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    private <T> Future<T> submitWhenAccepted(Callable<T> task) throws InterruptedException {
+        while (true) {
+            try {
+                return executor.submit(task);
+            }
+            catch (RejectedExecutionException e) {
+                Thread.sleep(REJECTED_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("Password hashing failed", cause);
+    }
+
+    private HashingCapacityException saturated() {
+        return new HashingCapacityException("Server is busy, please retry later", retryAfterSeconds);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
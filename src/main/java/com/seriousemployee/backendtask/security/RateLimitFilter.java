@@ -0,0 +1,61 @@
+package com.seriousemployee.backendtask.security;
+
+import com.seriousemployee.backendtask.exception.ErrorResponseWriter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies the per-IP limits of the authentication endpoints before the request body is even read.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final ErrorResponseWriter.PreparedError TOO_MANY_REQUESTS =
+            ErrorResponseWriter.prepare(HttpStatus.TOO_MANY_REQUESTS, "Too many requests, please retry later");
+
+    private final AuthRateLimiter rateLimiter;
+    private final ErrorResponseWriter errorResponseWriter;
+
+    public RateLimitFilter(AuthRateLimiter rateLimiter, ErrorResponseWriter errorResponseWriter) {
+        this.rateLimiter = rateLimiter;
+        this.errorResponseWriter = errorResponseWriter;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        AuthRateLimiter.Endpoint endpoint = endpointOf(request);
+        if (endpoint != null) {
+            long retryAfterSeconds = rateLimiter.acquireForIp(endpoint, request.getRemoteAddr());
+            if (retryAfterSeconds > 0) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                errorResponseWriter.write(response, TOO_MANY_REQUESTS);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static AuthRateLimiter.Endpoint endpointOf(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        return switch (request.getServletPath()) {
+            case "/api/v1/auth/login" -> AuthRateLimiter.Endpoint.LOGIN;
+            case "/api/v1/auth/register" -> AuthRateLimiter.Endpoint.REGISTER;
+            default -> null;
+        };
+    }
+}
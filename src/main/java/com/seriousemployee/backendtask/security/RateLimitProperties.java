@@ -0,0 +1,78 @@
+package com.seriousemployee.backendtask.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private Endpoint login = new Endpoint();
+    private Endpoint register = new Endpoint();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Endpoint getLogin() {
+        return login;
+    }
+
+    public Endpoint getRegister() {
+        return register;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setLogin(Endpoint login) {
+        this.login = login;
+    }
+
+    public void setRegister(Endpoint register) {
+        this.register = register;
+    }
+
+    public static class Endpoint {
+        private Limit perIp = new Limit();
+        private Limit perEmail = new Limit();
+
+        public Limit getPerIp() {
+            return perIp;
+        }
+
+        public Limit getPerEmail() {
+            return perEmail;
+        }
+
+        public void setPerIp(Limit perIp) {
+            this.perIp = perIp;
+        }
+
+        public void setPerEmail(Limit perEmail) {
+            this.perEmail = perEmail;
+        }
+    }
+
+    public static class Limit {
+        private int capacity;
+        private int refillPerMinute;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public int getRefillPerMinute() {
+            return refillPerMinute;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public void setRefillPerMinute(int refillPerMinute) {
+            this.refillPerMinute = refillPerMinute;
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.seriousemployee.backendtask.security;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.seriousemployee.backendtask.entities.Employee;
+import com.seriousemployee.backendtask.exception.ErrorResponseWriter;
 import com.seriousemployee.backendtask.repositories.EmployeeRepository;
+import com.seriousemployee.backendtask.repositories.EmployeeSummary;
+import com.seriousemployee.backendtask.services.EmployeeDirectory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -17,9 +20,11 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
@@ -29,8 +34,6 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -38,11 +41,17 @@ import java.util.Map;
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
+    private static final ErrorResponseWriter.PreparedError AUTHENTICATION_REQUIRED =
+            ErrorResponseWriter.prepare(HttpStatus.UNAUTHORIZED, "Authentication is required");
+    private static final ErrorResponseWriter.PreparedError ACCESS_DENIED =
+            ErrorResponseWriter.prepare(HttpStatus.FORBIDDEN, "You do not have permission to access this resource");
 
     private final EmployeeRepository employeeRepository;
+    private final EmployeeDirectory directory;
 
-    public SecurityConfig(EmployeeRepository employeeRepository) {
+    public SecurityConfig(EmployeeRepository employeeRepository, EmployeeDirectory directory) {
         this.employeeRepository = employeeRepository;
+        this.directory = directory;
     }
 
     @Bean
@@ -54,9 +63,34 @@ public class SecurityConfig {
         };
     }
 
+    /**
+     * Handles password upgrades on successful login, when the stored hash was made with an older cost or algorithm.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    UserDetailsPasswordService userDetailsPasswordService() {
+        return (user, newPassword) -> {
+            Employee emp = employeeRepository.findByEmail(user.getUsername())
+                    .orElseThrow(() -> new UsernameNotFoundException("Employee not found"));
+            emp.setPassword(newPassword);
+            Employee saved = employeeRepository.save(emp);
+            // The new hash moves the row version, which the directory serves as the ETag
+            directory.upsert(EmployeeSummary.fromEntity(saved));
+            return new EmployeeDetails(saved);
+        };
+    }
+
+    @Bean
+    public OffloadingPasswordEncoder passwordEncoder(PasswordHashingExecutor hashingExecutor, MeterRegistry meterRegistry,
+                                           @Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+                                           @Value("${security.password.target-latency-ms:250}") long targetLatencyMillis) {
+        int strength = bcryptStrength > 0 ? bcryptStrength : BCryptCalibration.strengthFor(targetLatencyMillis);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        // Hashes stored before the {bcrypt} prefix was introduced are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new OffloadingPasswordEncoder(delegating, hashingExecutor, meterRegistry);
     }
 
     @Bean
@@ -65,19 +99,25 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationProvider daoAuthenticationProvider() {
+    public AuthenticationProvider daoAuthenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
         return authProvider;
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity, AuthenticationProvider authenticationProvider, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity, AuthenticationProvider authenticationProvider,
+                                                   JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter,
+                                                   AuthenticationEntryPoint authenticationEntryPoint, AccessDeniedHandler accessDeniedHandler) throws Exception {
         return httpSecurity.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth ->
                         auth.requestMatchers(
                                 "/api/v1/auth/**",
+                                        "/.well-known/jwks.json",
+                                        "/actuator/health",
+                                        "/actuator/prometheus",
                                         "/swagger-ui/**",
                                         "/swagger-ui.html",
                                         "v3/api-docs/**",
@@ -85,10 +125,11 @@ public class SecurityConfig {
                                         "/webjars/**").permitAll().anyRequest().authenticated())
                 .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class)
                 .exceptionHandling(
                         exceptions -> exceptions
-                        .authenticationEntryPoint(authenticationEntryPoint())
-                        .accessDeniedHandler(accessDeniedHandler()))
+                        .authenticationEntryPoint(authenticationEntryPoint)
+                        .accessDeniedHandler(accessDeniedHandler))
                 .build();
     }
 
@@ -106,34 +147,12 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationEntryPoint authenticationEntryPoint() {
-        return (request, response, authException) -> {
-            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            response.setStatus(HttpStatus.UNAUTHORIZED.value());
-
-            Map<String, Object> body = new HashMap<>();
-            body.put("status", HttpStatus.UNAUTHORIZED.value());
-            body.put("message", "Authentication is required");
-            body.put("timestamp", LocalDateTime.now().toString());
-
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.writeValue(response.getOutputStream(), body);
-        };
+    public AuthenticationEntryPoint authenticationEntryPoint(ErrorResponseWriter errorResponseWriter) {
+        return (request, response, authException) -> errorResponseWriter.write(response, AUTHENTICATION_REQUIRED);
     }
 
     @Bean
-    public AccessDeniedHandler accessDeniedHandler() {
-        return (request, response, accessDeniedException) -> {
-            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            response.setStatus(HttpStatus.FORBIDDEN.value());
-
-            Map<String, Object> body = new HashMap<>();
-            body.put("status", HttpStatus.FORBIDDEN.value());
-            body.put("message", "You do not have permission to access this resource");
-            body.put("timestamp", LocalDateTime.now().toString());
-
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.writeValue(response.getOutputStream(), body);
-        };
+    public AccessDeniedHandler accessDeniedHandler(ErrorResponseWriter errorResponseWriter) {
+        return (request, response, accessDeniedException) -> errorResponseWriter.write(response, ACCESS_DENIED);
     }
 }
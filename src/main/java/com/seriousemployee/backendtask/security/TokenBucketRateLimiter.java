@@ -0,0 +1,115 @@
+package com.seriousemployee.backendtask.security;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process token buckets, one per key. Keys are spread over lock stripes so unrelated clients never contend,
+ * and buckets that have been idle long enough to refill completely are swept, since a fresh bucket is equivalent.
+ */
+public class TokenBucketRateLimiter {
+    private static final int STRIPES = 64;
+    private static final long SWEEP_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long refillNanos;
+
+    /**
+     * @param capacity        burst size, 0 disables the limiter
+     * @param refillPerMinute tokens added back per minute
+     */
+    public TokenBucketRateLimiter(int capacity, int refillPerMinute) {
+        this.capacity = capacity;
+        this.tokensPerNano = Math.max(1, refillPerMinute) / 60_000_000_000d;
+        this.refillNanos = (long) Math.ceil(capacity / tokensPerNano);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Takes one token for the key. Returns 0 when it was granted, otherwise the nanoseconds until one is available.
+     */
+    public long tryAcquire(String key) {
+        if (capacity <= 0) {
+            return 0;
+        }
+
+        long now = System.nanoTime();
+        Stripe stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+
+        stripe.lock.lock();
+        try {
+            if (now - stripe.nextSweepNanos >= 0) {
+                stripe.sweep(now, refillNanos);
+                stripe.nextSweepNanos = now + SWEEP_INTERVAL_NANOS;
+            }
+
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            }
+            else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedNanos) * tokensPerNano);
+                bucket.updatedNanos = now;
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+        finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            }
+            finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Bucket> buckets = new HashMap<>();
+        private long nextSweepNanos = System.nanoTime() + SWEEP_INTERVAL_NANOS;
+
+        private void sweep(long now, long refillNanos) {
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().updatedNanos >= refillNanos) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedNanos;
+
+        private Bucket(double tokens, long updatedNanos) {
+            this.tokens = tokens;
+            this.updatedNanos = updatedNanos;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.seriousemployee.backendtask.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Individually revoked tokens (logout), identified by their {@code jti}. Each revocation is stored in
+ * {@code token_revocations} until the token expires, and mirrored in memory as an exact set behind a Bloom filter:
+ * a token the filter has never seen is confirmed unrevoked without touching the set or the database.
+ * Revocations made by other instances are polled every {@code security.revocation.sync-interval-ms}.
+ * Employee-wide revocation (demotions, deletes, logout everywhere) goes through {@link TokenVersionRegistry}.
+ */
+@Component
+public class TokenRevocationRegistry implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int expectedEntries;
+    private final long syncOverlapMillis;
+    private final Map<UUID, Long> revoked = new ConcurrentHashMap<>();
+    private final Counter bloomNegatives;
+    private final Counter falsePositives;
+    private volatile BloomFilter filter;
+    // Database time of the last poll, the next one resumes shortly before it
+    private volatile OffsetDateTime watermark;
+    private volatile boolean running;
+
+    public TokenRevocationRegistry(JdbcTemplate jdbcTemplate,
+                                   @Value("${security.revocation.expected-entries:100000}") int expectedEntries,
+                                   @Value("${security.revocation.sync-overlap-ms:10000}") long syncOverlapMillis,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedEntries = Math.max(1024, expectedEntries);
+        this.syncOverlapMillis = syncOverlapMillis;
+        this.filter = new BloomFilter(this.expectedEntries);
+        this.bloomNegatives = meterRegistry.counter("app.auth.revocation.checks", "result", "filtered");
+        this.falsePositives = meterRegistry.counter("app.auth.revocation.checks", "result", "false-positive");
+        Gauge.builder("app.auth.revocations", revoked, Map::size)
+                .description("Revoked, unexpired tokens held in memory")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String jti) {
+        UUID id = parse(jti);
+        if (id == null) {
+            return false;
+        }
+        if (!filter.mightContain(id)) {
+            bloomNegatives.increment();
+            return false;
+        }
+        if (revoked.containsKey(id)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Revokes the token until {@code expiresAt}. Tokens without a usable id cannot be revoked individually.
+     */
+    public boolean revoke(String jti, Date expiresAt) {
+        UUID id = parse(jti);
+        if (id == null || expiresAt == null) {
+            return false;
+        }
+        jdbcTemplate.update("insert into token_revocations (jti, expires_at) values (?, ?) on conflict do nothing",
+                id, new Timestamp(expiresAt.getTime()));
+        revoked.put(id, expiresAt.getTime());
+        add(id);
+        return true;
+    }
+
+    /**
+     * Picks up revocations stored since the last poll, by this or any other instance. Polling starts
+     * {@code sync-overlap-ms} before the watermark, so rows committed late are not missed.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:2000}",
+            initialDelayString = "${security.revocation.sync-interval-ms:2000}")
+    public void sync() {
+        if (!running) {
+            return;
+        }
+        OffsetDateTime now = currentTimestamp();
+        jdbcTemplate.query("select jti, expires_at from token_revocations where revoked_at > ? and expires_at > now()",
+                rs -> {
+                    UUID id = rs.getObject("jti", UUID.class);
+                    if (revoked.putIfAbsent(id, rs.getTimestamp("expires_at").getTime()) == null) {
+                        add(id);
+                    }
+                },
+                watermark.minus(syncOverlapMillis, ChronoUnit.MILLIS));
+        watermark = now;
+    }
+
+    /**
+     * Drops revocations of tokens that have expired since, from the table and from memory. A Bloom filter cannot
+     * forget entries, so it is rebuilt from what is left.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval-ms:3600000}",
+            initialDelayString = "${security.revocation.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int deleted = jdbcTemplate.update("delete from token_revocations where expires_at <= ?", new Timestamp(now));
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        rebuild();
+        log.debug("Purged {} expired token revocations, {} remain", deleted, revoked.size());
+    }
+
+    @Override
+    public void start() {
+        // Before the web server starts accepting requests, so no revoked token slips through after a restart
+        watermark = currentTimestamp();
+        jdbcTemplate.query("select jti, expires_at from token_revocations where expires_at > now()",
+                rs -> {
+                    revoked.put(rs.getObject("jti", UUID.class), rs.getTimestamp("expires_at").getTime());
+                });
+        rebuild();
+        running = true;
+        log.info("Loaded {} token revocations", revoked.size());
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // With time zone, so the watermark compares the same as revoked_at whatever the session time zone
+    private OffsetDateTime currentTimestamp() {
+        return jdbcTemplate.queryForObject("select now()", OffsetDateTime.class);
+    }
+
+    private synchronized void add(UUID id) {
+        if (revoked.size() > filter.capacity) {
+            rebuild();
+        }
+        else {
+            filter.add(id);
+        }
+    }
+
+    // Synchronized with add, so a revocation is never lost between building the new filter and publishing it
+    private synchronized void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2));
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    private static UUID parse(String jti) {
+        if (jti == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(jti);
+        }
+        catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Bloom filter over random UUIDs. Their two halves are already uniformly distributed, so they serve directly as
+     * the two base hashes of the Kirsch-Mitzenmacher scheme.
+     */
+    static final class BloomFilter {
+        private final int capacity;
+        private final long bits;
+        private final int hashes;
+        private final AtomicLongArray words;
+
+        BloomFilter(int capacity) {
+            this.capacity = capacity;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((optimalBits + 63) / 64));
+            this.bits = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        }
+
+        void add(UUID id) {
+            long h1 = id.getMostSignificantBits();
+            long h2 = id.getLeastSignificantBits();
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                words.getAndUpdate(word, value -> value | mask);
+            }
+        }
+
+        boolean mightContain(UUID id) {
+            long h1 = id.getMostSignificantBits();
+            long h2 = id.getLeastSignificantBits();
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
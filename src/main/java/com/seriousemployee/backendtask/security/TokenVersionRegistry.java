@@ -0,0 +1,170 @@
+package com.seriousemployee.backendtask.security;
+
+import com.seriousemployee.backendtask.config.ReplicaDataSource;
+import com.seriousemployee.backendtask.repositories.EmployeeRepository;
+import com.seriousemployee.backendtask.repositories.EmployeeTokenVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of each employee's current token version and row version.
+ * Tokens carry both as they were issued. A token whose token version has moved on is revoked, which only demotion,
+ * deletion and logout everywhere do. A token whose row version has moved on is still valid, but its claims no longer
+ * describe the employee, who has to be reloaded. Every employee's versions are loaded at startup, so the common case never reaches the database. Employees unknown
+ * to the registry (deleted before the restart, or created by another instance) are looked up once and remembered.
+ * <p>
+ * Changes made by other instances reach this one through {@code token_version_changes}, which is filled by a
+ * trigger and polled every {@code security.revocation.sync-interval-ms}. A token newer than the version held here
+ * is checked against the database right away, so sessions started elsewhere never wait for the next poll.
+ */
+@Component
+public class TokenVersionRegistry implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(TokenVersionRegistry.class);
+    private static final Versions DELETED = new Versions(-1, -1);
+
+    public enum Status { CURRENT, STALE, REVOKED }
+
+    private final EmployeeRepository employeeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long syncOverlapMillis;
+    private final long changeRetentionMillis;
+    private final Map<Long, Versions> versions = new ConcurrentHashMap<>();
+    // Database time of the last poll, the next one resumes shortly before it
+    private volatile OffsetDateTime watermark;
+    private volatile boolean running;
+
+    public TokenVersionRegistry(EmployeeRepository employeeRepository,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${security.revocation.sync-overlap-ms:10000}") long syncOverlapMillis,
+                                @Value("${security.revocation.change-retention-ms:3600000}") long changeRetentionMillis) {
+        this.employeeRepository = employeeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.syncOverlapMillis = syncOverlapMillis;
+        this.changeRetentionMillis = changeRetentionMillis;
+    }
+
+    public Status check(Long employeeId, int tokenVersion, long version) {
+        Versions current = versions.get(employeeId);
+        if (current == null || !current.deleted() && (current.tokenVersion() < tokenVersion
+                || current.tokenVersion() == tokenVersion && current.version() < version)) {
+            // Unknown here, or issued after a change this instance has not polled yet. A replica may not have the
+            // change either, so this asks the primary
+            Versions loaded = ReplicaDataSource.onPrimary(() -> employeeRepository.findTokenVersionById(employeeId))
+                    .map(employee -> new Versions(employee.tokenVersion(), employee.version()))
+                    .orElse(DELETED);
+            current = versions.merge(employeeId, loaded, TokenVersionRegistry::newer);
+        }
+        if (current.tokenVersion() != tokenVersion) {
+            return Status.REVOKED;
+        }
+        return current.version() == version ? Status.CURRENT : Status.STALE;
+    }
+
+    public void update(Long employeeId, int tokenVersion, long version) {
+        versions.merge(employeeId, new Versions(tokenVersion, version), TokenVersionRegistry::newer);
+    }
+
+    public void markDeleted(Long employeeId) {
+        versions.put(employeeId, DELETED);
+    }
+
+    /**
+     * Applies token version changes committed since the last poll, by this or any other instance. Polling starts
+     * {@code sync-overlap-ms} before the watermark, so changes committed late by long transactions are not missed;
+     * applying one twice is harmless. An instance that fell further behind than the retained changes reloads.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:2000}",
+            initialDelayString = "${security.revocation.sync-interval-ms:2000}")
+    public void sync() {
+        if (!running) {
+            return;
+        }
+        OffsetDateTime from = watermark;
+        OffsetDateTime now = currentTimestamp();
+        if (Duration.between(from, now).toMillis() > changeRetentionMillis - syncOverlapMillis) {
+            reload(now);
+            return;
+        }
+        jdbcTemplate.query("select employee_id, token_version, version from token_version_changes where changed_at > ?",
+                rs -> {
+                    update(rs.getLong("employee_id"), rs.getInt("token_version"), rs.getLong("version"));
+                },
+                from.minus(syncOverlapMillis, ChronoUnit.MILLIS));
+        watermark = now;
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval-ms:3600000}",
+            initialDelayString = "${security.revocation.purge-interval-ms:3600000}")
+    public void purgeChanges() {
+        int deleted = jdbcTemplate.update("delete from token_version_changes where changed_at < ?",
+                currentTimestamp().minus(changeRetentionMillis, ChronoUnit.MILLIS));
+        log.debug("Purged {} token version changes", deleted);
+    }
+
+    @Override
+    public void start() {
+        // Before the web server starts, so the first requests after a restart are served from memory too
+        reload(currentTimestamp());
+        running = true;
+        log.info("Loaded token versions of {} employees", versions.size());
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // The watermark is taken before reading, so changes committed meanwhile are picked up by the next poll.
+    // Employees missing from the result are forgotten rather than marked deleted, and looked up again when needed
+    private void reload(OffsetDateTime asOf) {
+        Set<Long> present = new HashSet<>();
+        for (EmployeeTokenVersion employee : ReplicaDataSource.onPrimary(employeeRepository::findAllTokenVersions)) {
+            update(employee.id(), employee.tokenVersion(), employee.version());
+            present.add(employee.id());
+        }
+        versions.keySet().retainAll(present);
+        watermark = asOf;
+    }
+
+    // With time zone, so the watermark compares the same as changed_at whatever the session time zone
+    private OffsetDateTime currentTimestamp() {
+        return jdbcTemplate.queryForObject("select now()", OffsetDateTime.class);
+    }
+
+    // Versions only grow and ids are never reused, so the higher versions win and a delete is final
+    private static Versions newer(Versions a, Versions b) {
+        if (a.deleted() || b.deleted()) {
+            return DELETED;
+        }
+        return new Versions(Math.max(a.tokenVersion(), b.tokenVersion()), Math.max(a.version(), b.version()));
+    }
+
+    private record Versions(int tokenVersion, long version) {
+        boolean deleted() {
+            return tokenVersion < 0;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.seriousemployee.backendtask.services;
+
+import com.seriousemployee.backendtask.repositories.AuditEvent;
+import com.seriousemployee.backendtask.repositories.AuditRepository;
+import com.seriousemployee.backendtask.security.EmployeeDetails;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Durable trail of employee changes, written off the request path. Services publish events into a bounded ring
+ * buffer once their transaction commits; a single writer thread drains it in batches into {@code employee_audit}.
+ * When the buffer is full events are dropped ({@code drop}) or the caller waits briefly for room first ({@code block}).
+ * Queued events are written before shutdown completes.
+ */
+@Component
+public class AuditLog implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private final AuditRepository repo;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long overflowMaxWaitNanos;
+    private final long shutdownTimeoutMillis;
+    private final Counter queued;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+    private final Timer flushes;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLog(AuditRepository repo,
+                    MeterRegistry meterRegistry,
+                    @Value("${serious-app.audit.enabled:true}") boolean enabled,
+                    @Value("${serious-app.audit.capacity:8192}") int capacity,
+                    @Value("${serious-app.audit.batch-size:500}") int batchSize,
+                    @Value("${serious-app.audit.flush-interval-ms:100}") long flushIntervalMillis,
+                    @Value("${serious-app.audit.overflow:drop}") String overflowPolicy,
+                    @Value("${serious-app.audit.overflow-max-wait-ms:50}") long overflowMaxWaitMillis,
+                    @Value("${serious-app.audit.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.repo = repo;
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.toUpperCase());
+        this.overflowMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(overflowMaxWaitMillis);
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+
+        this.queued = eventCounter(meterRegistry, "queued");
+        this.dropped = Counter.builder("app.audit.dropped")
+                .description("Audit events lost because the buffer was full or the writer had stopped")
+                .tag("policy", this.overflowPolicy.name().toLowerCase())
+                .register(meterRegistry);
+        this.written = eventCounter(meterRegistry, "written");
+        this.failed = eventCounter(meterRegistry, "failed");
+        this.flushes = Timer.builder("app.audit.flush")
+                .description("Writing one batch of audit events")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("app.audit.queue.size", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("app.audit.queue.capacity", buffer, AuditRingBuffer::capacity)
+                .register(meterRegistry);
+        Gauge.builder("app.audit.lag", this, AuditLog::lagMillis)
+                .description("Age of the oldest audit event not yet written")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public void record(AuditEvent.Action action, Long employeeId, String details) {
+        if (enabled) {
+            Long actorId = currentActorId();
+            Instant now = Instant.now();
+            TransactionCallbacks.afterCommit(() -> publish(new AuditEvent(now, action, employeeId, actorId, details)));
+        }
+    }
+
+    public void recordAll(AuditEvent.Action action, Collection<Long> employeeIds, String details) {
+        if (enabled && !employeeIds.isEmpty()) {
+            Long actorId = currentActorId();
+            Instant now = Instant.now();
+            List<Long> ids = List.copyOf(employeeIds);
+            TransactionCallbacks.afterCommit(() -> ids.forEach(id -> publish(new AuditEvent(now, action, id, actorId, details))));
+        }
+    }
+
+    private void publish(AuditEvent event) {
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+        if (buffer.offer(event) || (overflowPolicy == OverflowPolicy.BLOCK && offerWithin(event))) {
+            queued.increment();
+            if (!running) {
+                // Stopped while we were offering; the writer may have exited without seeing the event
+                flushAfterStop();
+            }
+            return;
+        }
+        dropped.increment();
+    }
+
+    /**
+     * Writes what a stopped writer left behind, on the caller's thread. Waits for {@link #stop()} to finish, so the
+     * buffer never has two consumers. Events still being published are flushed by their own producers.
+     */
+    private synchronized void flushAfterStop() {
+        if (running || writer.isAlive()) {
+            return;
+        }
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private boolean offerWithin(AuditEvent event) {
+        long deadline = System.nanoTime() + overflowMaxWaitNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drain() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            batch.clear();
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                if (!running) {
+                    // Claimed but not yet written by its producer; it lands within a few instructions
+                    Thread.onSpinWait();
+                    continue;
+                }
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            write(batch);
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            long start = System.nanoTime();
+            try {
+                repo.insertAll(batch);
+                flushes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                written.increment(batch.size());
+                return;
+            }
+            catch (RuntimeException e) {
+                log.warn("Writing {} audit events failed (attempt {} of {})", batch.size(), attempt, MAX_WRITE_ATTEMPTS, e);
+                if (attempt < MAX_WRITE_ATTEMPTS) {
+                    LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(attempt));
+                }
+            }
+        }
+        failed.increment(batch.size());
+    }
+
+    private double lagMillis() {
+        AuditEvent oldest = buffer.peek();
+        return oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.occurredAt().toEpochMilli());
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops after the web server, so requests still in flight have published their events, and waits for the
+     * writer to flush what is queued.
+     */
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(shutdownTimeoutMillis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Audit writer did not finish within {} ms, {} events not written", shutdownTimeoutMillis, buffer.size());
+        }
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static Long currentActorId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof EmployeeDetails employee
+                ? employee.getId()
+                : null;
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("app.audit.events")
+                .description("Employee audit events by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
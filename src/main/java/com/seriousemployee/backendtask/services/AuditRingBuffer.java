@@ -0,0 +1,76 @@
+package com.seriousemployee.backendtask.services;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring buffer. Producers claim a slot with one CAS on the tail and never
+ * block; the consumer frees slots by nulling them before it moves the head, so a producer only reuses a slot after
+ * its previous element was taken.
+ */
+final class AuditRingBuffer<T> {
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds the element, or returns {@code false} when the buffer is full.
+     */
+    boolean offer(T element) {
+        while (true) {
+            long claimed = tail.get();
+            if (claimed - head.get() >= slots.length()) {
+                return false;
+            }
+            if (tail.compareAndSet(claimed, claimed + 1)) {
+                slots.set((int) (claimed & mask), element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} elements into {@code into}, in order. Stops early at a slot that was claimed but not
+     * yet written. Only the consumer thread may call this.
+     */
+    int drainTo(List<T> into, int max) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            T element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            into.add(element);
+            position++;
+            drained++;
+        }
+        head.set(position);
+        return drained;
+    }
+
+    /**
+     * Oldest queued element, read without removing it. Approximate while producers are writing.
+     */
+    T peek() {
+        return slots.get((int) (head.get() & mask));
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -3,36 +3,94 @@ package com.seriousemployee.backendtask.services;
 import com.seriousemployee.backendtask.dto.LoginEmployeeRequest;
 import com.seriousemployee.backendtask.dto.RegisterEmployeeRequest;
 import com.seriousemployee.backendtask.entities.Employee;
+import com.seriousemployee.backendtask.repositories.AuditEvent;
 import com.seriousemployee.backendtask.repositories.EmployeeRepository;
+import com.seriousemployee.backendtask.repositories.EmployeeSummary;
+import com.seriousemployee.backendtask.security.TokenVersionRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AccountStatusException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class AuthenticationService {
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
+    private final MeterRegistry meterRegistry;
+    private final EmployeeDirectory directory;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final AuditLog auditLog;
 
-    public AuthenticationService(EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager) {
+    public AuthenticationService(EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager,
+                                 MeterRegistry meterRegistry, EmployeeDirectory directory, TokenVersionRegistry tokenVersionRegistry,
+                                 AuditLog auditLog) {
         this.employeeRepository = employeeRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
+        this.meterRegistry = meterRegistry;
+        this.directory = directory;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.auditLog = auditLog;
     }
 
     public Employee signup(RegisterEmployeeRequest request) {
-        Employee employee = new Employee(request.name(), request.email(), request.password(), "USER");
-        employee.setPassword(passwordEncoder.encode(employee.getPassword()));
-        return employeeRepository.save(employee);
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Employee employee = new Employee(request.name(), request.email(), request.password(), "USER");
+            employee.setPassword(passwordEncoder.encode(employee.getPassword()));
+            Employee saved = employeeRepository.save(employee);
+            directory.upsert(EmployeeSummary.fromEntity(saved));
+            auditLog.record(AuditEvent.Action.REGISTER, saved.getId(), saved.getEmail());
+            outcome = "success";
+            return saved;
+        }
+        finally {
+            record("register", outcome, start);
+        }
     }
 
     public Employee authenticate(LoginEmployeeRequest request) {
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
-                request.email(),
-                request.password()
-        ));
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                    request.email(),
+                    request.password()
+            ));
+            outcome = "success";
+        }
+        catch (BadCredentialsException e) {
+            outcome = "bad_credentials";
+            throw e;
+        }
+        catch (AccountStatusException e) {
+            outcome = "locked";
+            throw e;
+        }
+        finally {
+            record("login", outcome, start);
+        }
+
+        Employee employee = employeeRepository.findByEmail(request.email()).orElseThrow();
+        // The token about to be issued is then confirmed from memory from its first use
+        tokenVersionRegistry.update(employee.getId(), employee.getTokenVersion(), employee.getVersion());
+        return employee;
+    }
 
-        return employeeRepository.findByEmail(request.email()).orElseThrow();
+    private void record(String operation, String outcome, long start) {
+        Timer.builder("app.auth.requests")
+                .description("Login and registration, including password hashing")
+                .tags("operation", operation, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
     }
 }
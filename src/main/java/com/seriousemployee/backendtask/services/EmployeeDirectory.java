@@ -0,0 +1,418 @@
+package com.seriousemployee.backendtask.services;
+
+import com.seriousemployee.backendtask.config.ReplicaDataSource;
+import com.seriousemployee.backendtask.entities.EmployeeSpecification;
+import com.seriousemployee.backendtask.repositories.EmployeeRepository;
+import com.seriousemployee.backendtask.repositories.EmployeeSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory copy of the employee table ({@code serious-app.directory.enabled}) that serves the listing and
+ * lookup endpoints without a database round trip. Readers see an immutable {@link Snapshot} through a volatile read
+ * and never lock. Writers build a new snapshot from the current one and publish it once their transaction has
+ * committed. A periodic reload reconciles the copy with the database.
+ */
+@Component
+public class EmployeeDirectory {
+    private static final Logger log = LoggerFactory.getLogger(EmployeeDirectory.class);
+    private static final int LOAD_FETCH_SIZE = 1000;
+    private static final int RELOAD_ATTEMPTS = 3;
+    // Long enough for any commit that raced a delete to have published its upsert
+    private static final long TOMBSTONE_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final Comparator<EmployeeSummary> BY_CREATED_AT =
+            Comparator.comparing(EmployeeSummary::createdAt).thenComparing(EmployeeSummary::id);
+
+    private final EmployeeRepository repo;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    private long generation;
+
+    public EmployeeDirectory(EmployeeRepository repo,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${serious-app.directory.enabled:false}") boolean enabled) {
+        this.repo = repo;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+
+        if (enabled) {
+            Gauge.builder("app.directory.employees", this, directory -> directory.size())
+                    .description("Employees held by the in-memory directory")
+                    .register(meterRegistry);
+            Gauge.builder("app.directory.memory", this, directory -> directory.estimatedBytes())
+                    .description("Estimated heap held by the in-memory directory")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("app.directory.memory.per.employee", this,
+                            directory -> directory.size() == 0 ? 0 : (double) directory.estimatedBytes() / directory.size())
+                    .description("Estimated heap per employee held by the in-memory directory")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * True once the first load finished; until then callers read from the database.
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public Optional<EmployeeSummary> findByEmail(String email) {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.ofNullable(current.byEmail.get(email));
+    }
+
+    public Optional<EmployeeSummary> findById(Long id) {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.ofNullable(current.byId.get(id));
+    }
+
+    /**
+     * Same filters as {@link EmployeeSpecification#build}, ordered by {@code (createdAt, id)}. Only the sort
+     * direction of the pageable is used. Must only be called once {@link #isReady()}.
+     */
+    public Page<EmployeeSummary> findPage(String role, LocalDate before, LocalDate after, boolean ascending, Pageable pageable) {
+        Snapshot current = snapshot;
+        List<EmployeeSummary> content = current.find(role, before, after, ascending, pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, () -> current.count(role, before, after));
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.byCreatedAt.length;
+    }
+
+    public long estimatedBytes() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.estimatedBytes;
+    }
+
+    /**
+     * Publishes the new state of the employee once the surrounding transaction commits, or right away outside one.
+     */
+    public void upsert(EmployeeSummary employee) {
+        upsertAll(List.of(employee));
+    }
+
+    public void upsertAll(Collection<EmployeeSummary> employees) {
+        TransactionCallbacks.afterCommit(() -> apply(current -> current.with(employees)));
+    }
+
+    public void remove(Collection<Long> ids) {
+        TransactionCallbacks.afterCommit(() -> apply(current -> current.without(ids)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${serious-app.directory.reconcile-interval-ms:60000}",
+            initialDelayString = "${serious-app.directory.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        reload();
+    }
+
+    /**
+     * Replaces the snapshot with the table as it is now. Writes that land while the table is read make the result
+     * outdated, so the read is retried; if writes keep coming, the incrementally maintained copy is kept.
+     */
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        for (int attempt = 0; attempt < RELOAD_ATTEMPTS; attempt++) {
+            long startGeneration = currentGeneration();
+            List<EmployeeSummary> rows = ReplicaDataSource.onPrimary(this::readTable);
+            Snapshot loaded = Snapshot.of(rows);
+
+            writeLock.lock();
+            try {
+                if (generation == startGeneration) {
+                    generation++;
+                    snapshot = snapshot == null
+                            ? loaded
+                            : loaded.withTombstones(snapshot.tombstonesSince(System.nanoTime() - TOMBSTONE_TTL_NANOS));
+                    log.debug("Employee directory reloaded with {} employees, ~{} bytes", rows.size(), loaded.estimatedBytes);
+                    return;
+                }
+            }
+            finally {
+                writeLock.unlock();
+            }
+        }
+        log.debug("Employee directory reload skipped after {} attempts, writes kept changing the table", RELOAD_ATTEMPTS);
+    }
+
+    private List<EmployeeSummary> readTable() {
+        return readOnlyTransaction.execute(status -> {
+            try (Stream<EmployeeSummary> rows = repo.streamSummaries(EmployeeSpecification.build(null, null, null),
+                    Sort.by("createdAt", "id"), LOAD_FETCH_SIZE)) {
+                return rows.toList();
+            }
+        });
+    }
+
+    private long currentGeneration() {
+        writeLock.lock();
+        try {
+            return generation;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void apply(UnaryOperator<Snapshot> change) {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            generation++;
+            if (snapshot != null) {
+                snapshot = change.apply(snapshot);
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Immutable view of the table: rows sorted by {@code (createdAt, id)}, hash indexes by email and id, and one
+     * bitmap per role over the sorted positions. Removed ids are remembered for a while, so an upsert that
+     * committed before the delete but was published after it cannot bring the employee back.
+     */
+    static final class Snapshot {
+        private final EmployeeSummary[] byCreatedAt;
+        private final Map<String, EmployeeSummary> byEmail;
+        private final Map<Long, EmployeeSummary> byId;
+        private final Map<String, BitSet> byRole;
+        private final long estimatedBytes;
+        // Removed id to System.nanoTime() of the removal; ids are never reused
+        private final Map<Long, Long> tombstones;
+
+        private Snapshot(EmployeeSummary[] byCreatedAt, Map<Long, Long> tombstones) {
+            this.byCreatedAt = byCreatedAt;
+            this.tombstones = tombstones;
+            Map<String, EmployeeSummary> emails = HashMap.newHashMap(byCreatedAt.length);
+            Map<Long, EmployeeSummary> ids = HashMap.newHashMap(byCreatedAt.length);
+            Map<String, BitSet> roles = new HashMap<>();
+            long bytes = 0;
+
+            for (int i = 0; i < byCreatedAt.length; i++) {
+                EmployeeSummary employee = byCreatedAt[i];
+                emails.put(employee.email(), employee);
+                ids.put(employee.id(), employee);
+                roles.computeIfAbsent(employee.role(), role -> new BitSet(byCreatedAt.length)).set(i);
+                bytes += estimateBytes(employee);
+            }
+            for (BitSet bits : roles.values()) {
+                bytes += bits.size() / 8;
+            }
+
+            this.byEmail = emails;
+            this.byId = ids;
+            this.byRole = roles;
+            this.estimatedBytes = bytes;
+        }
+
+        private Snapshot(Snapshot indexes, Map<Long, Long> tombstones) {
+            this.byCreatedAt = indexes.byCreatedAt;
+            this.byEmail = indexes.byEmail;
+            this.byId = indexes.byId;
+            this.byRole = indexes.byRole;
+            this.estimatedBytes = indexes.estimatedBytes;
+            this.tombstones = tombstones;
+        }
+
+        static Snapshot of(Collection<EmployeeSummary> employees) {
+            return of(employees, Map.of());
+        }
+
+        private static Snapshot of(Collection<EmployeeSummary> employees, Map<Long, Long> tombstones) {
+            EmployeeSummary[] sorted = employees.toArray(EmployeeSummary[]::new);
+            Arrays.sort(sorted, BY_CREATED_AT);
+            return new Snapshot(sorted, tombstones);
+        }
+
+        Snapshot with(Collection<EmployeeSummary> changed) {
+            Map<Long, EmployeeSummary> latest = new HashMap<>();
+            for (EmployeeSummary employee : changed) {
+                if (tombstones.containsKey(employee.id())) {
+                    continue;
+                }
+                EmployeeSummary existing = byId.get(employee.id());
+                // Commits can be published out of order; never go back to an older version of a row
+                if (existing == null || existing.version() <= employee.version()) {
+                    latest.merge(employee.id(), employee, (a, b) -> a.version() >= b.version() ? a : b);
+                }
+            }
+            if (latest.isEmpty()) {
+                return this;
+            }
+
+            List<EmployeeSummary> rows = new ArrayList<>(byCreatedAt.length + latest.size());
+            for (EmployeeSummary employee : byCreatedAt) {
+                if (!latest.containsKey(employee.id())) {
+                    rows.add(employee);
+                }
+            }
+            rows.addAll(latest.values());
+            return of(rows, tombstones);
+        }
+
+        Snapshot without(Collection<Long> ids) {
+            if (ids.isEmpty()) {
+                return this;
+            }
+            // Tombstoned even when absent, the employee's insert may not have been published yet
+            long now = System.nanoTime();
+            Map<Long, Long> buried = new HashMap<>(tombstones);
+            ids.forEach(id -> buried.put(id, now));
+
+            Set<Long> removed = new HashSet<>(ids);
+            removed.retainAll(byId.keySet());
+            if (removed.isEmpty()) {
+                return new Snapshot(this, buried);
+            }
+            return new Snapshot(Arrays.stream(byCreatedAt)
+                    .filter(employee -> !removed.contains(employee.id()))
+                    .toArray(EmployeeSummary[]::new), buried);
+        }
+
+        Snapshot withTombstones(Map<Long, Long> tombstones) {
+            return new Snapshot(this, tombstones);
+        }
+
+        Map<Long, Long> tombstonesSince(long sinceNanos) {
+            Map<Long, Long> recent = new HashMap<>();
+            tombstones.forEach((id, removedAt) -> {
+                if (removedAt - sinceNanos >= 0) {
+                    recent.put(id, removedAt);
+                }
+            });
+            return recent;
+        }
+
+        List<EmployeeSummary> find(String role, LocalDate before, LocalDate after, boolean ascending, long offset, int limit) {
+            int from = from(after);
+            int to = to(before);
+            BitSet roleBits = roleBits(role);
+            List<EmployeeSummary> page = new ArrayList<>(Math.min(limit, Math.max(0, to - from)));
+            long skipped = 0;
+
+            if (roleBits == null) {
+                if (role != null && !role.isEmpty()) {
+                    return page;
+                }
+                long start = ascending ? from + offset : to - 1 - offset;
+                for (long i = start; page.size() < limit && i >= from && i < to; i += ascending ? 1 : -1) {
+                    page.add(byCreatedAt[(int) i]);
+                }
+                return page;
+            }
+
+            int i = ascending ? roleBits.nextSetBit(from) : roleBits.previousSetBit(to - 1);
+            while (i >= from && i < to && page.size() < limit) {
+                if (skipped++ >= offset) {
+                    page.add(byCreatedAt[i]);
+                }
+                i = ascending ? roleBits.nextSetBit(i + 1) : roleBits.previousSetBit(i - 1);
+            }
+            return page;
+        }
+
+        long count(String role, LocalDate before, LocalDate after) {
+            int from = from(after);
+            int to = to(before);
+            if (from >= to) {
+                return 0;
+            }
+            BitSet roleBits = roleBits(role);
+            if (roleBits == null) {
+                return role != null && !role.isEmpty() ? 0 : to - from;
+            }
+            return roleBits.get(from, to).cardinality();
+        }
+
+        private BitSet roleBits(String role) {
+            return role == null || role.isEmpty() ? null : byRole.get(role);
+        }
+
+        // joinedAfter: createdAt > after
+        private int from(LocalDate after) {
+            return after == null ? 0 : firstAfter(after.atStartOfDay());
+        }
+
+        // joinedBefore: createdAt <= before
+        private int to(LocalDate before) {
+            return before == null ? byCreatedAt.length : firstAfter(before.atStartOfDay());
+        }
+
+        private int firstAfter(LocalDateTime time) {
+            int low = 0;
+            int high = byCreatedAt.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (byCreatedAt[mid].createdAt().isAfter(time)) {
+                    high = mid;
+                }
+                else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Rough retained size with compressed references: the record, its strings (Latin-1), the boxed id,
+         * the date-time, one slot in the sorted array and one entry in each hash index.
+         */
+        private static long estimateBytes(EmployeeSummary employee) {
+            return 32 + stringBytes(employee.name()) + stringBytes(employee.email()) + stringBytes(employee.role())
+                    + 16 + 72 + 4 + 2 * 36;
+        }
+
+        private static long stringBytes(String value) {
+            return 24 + 16 + value.length();
+        }
+    }
+}
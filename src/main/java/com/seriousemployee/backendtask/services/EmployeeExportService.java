@@ -0,0 +1,104 @@
+package com.seriousemployee.backendtask.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.seriousemployee.backendtask.dto.GetEmployeeResponse;
+import com.seriousemployee.backendtask.entities.Employee;
+import com.seriousemployee.backendtask.repositories.EmployeeRepository;
+import com.seriousemployee.backendtask.repositories.EmployeeSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Writes the employee table to a response in constant memory: rows come from a server-side cursor as projections,
+ * so no entities (or password hashes) are loaded, and the output is flushed every few rows.
+ */
+@Service
+public class EmployeeExportService {
+    public enum Format { NDJSON, CSV }
+
+    private static final byte[] CSV_HEADER = "id,name,email,role,createdAt\n".getBytes(StandardCharsets.UTF_8);
+    private static final Sort EXPORT_ORDER = Sort.by("createdAt", "id").ascending();
+
+    private final EmployeeRepository repo;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    private final int flushEvery;
+
+    public EmployeeExportService(EmployeeRepository repo,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${serious-app.export.fetch-size:1000}") int fetchSize,
+                                 @Value("${serious-app.export.flush-every:1000}") int flushEvery) {
+        this.repo = repo;
+        this.rowWriter = objectMapper.writerFor(GetEmployeeResponse.class);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.flushEvery = flushEvery;
+    }
+
+    public void export(Specification<Employee> spec, Format format, OutputStream output) throws IOException {
+        BufferedOutputStream out = new BufferedOutputStream(output, 64 * 1024);
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER);
+        }
+
+        try {
+            // The cursor only stays open inside a transaction
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<EmployeeSummary> rows = repo.streamSummaries(spec, EXPORT_ORDER, fetchSize)) {
+                    long written = 0;
+                    for (EmployeeSummary row : (Iterable<EmployeeSummary>) rows::iterator) {
+                        writeRow(row, format, out);
+                        if (++written % flushEvery == 0) {
+                            out.flush();
+                        }
+                    }
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    private void writeRow(EmployeeSummary row, Format format, OutputStream out) throws IOException {
+        if (format == Format.NDJSON) {
+            out.write(rowWriter.writeValueAsBytes(GetEmployeeResponse.fromSummary(row)));
+            out.write('\n');
+            return;
+        }
+
+        StringBuilder line = new StringBuilder(96)
+                .append(row.id()).append(',')
+                .append(csvField(row.name())).append(',')
+                .append(csvField(row.email())).append(',')
+                .append(csvField(row.role())).append(',')
+                .append(row.createdAt()).append('\n');
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
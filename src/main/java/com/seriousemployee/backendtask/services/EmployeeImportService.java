@@ -0,0 +1,269 @@
+package com.seriousemployee.backendtask.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seriousemployee.backendtask.dto.BulkImportError;
+import com.seriousemployee.backendtask.dto.BulkImportResponse;
+import com.seriousemployee.backendtask.dto.RegisterEmployeeRequest;
+import com.seriousemployee.backendtask.entities.Employee;
+import com.seriousemployee.backendtask.repositories.AuditEvent;
+import com.seriousemployee.backendtask.repositories.EmployeeRepository;
+import com.seriousemployee.backendtask.repositories.EmployeeSummary;
+import com.seriousemployee.backendtask.security.OffloadingPasswordEncoder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streams employee records from NDJSON or CSV, validating rows as they arrive. Each batch is hashed in parallel
+ * on the password hashing pool and inserted in one transaction using JDBC batching. Bad rows are reported
+ * individually and do not stop the rest of the load.
+ */
+@Service
+public class EmployeeImportService {
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER = "name,email,password";
+
+    private final EmployeeRepository repo;
+    private final OffloadingPasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeDirectory directory;
+    private final AuditLog auditLog;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EmployeeImportService(EmployeeRepository repo,
+                                 OffloadingPasswordEncoder passwordEncoder,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 TransactionTemplate transactionTemplate,
+                                 EmployeeDirectory directory,
+                                 AuditLog auditLog,
+                                 @Value("${serious-app.import.batch-size:500}") int batchSize,
+                                 @Value("${serious-app.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.repo = repo;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.directory = directory;
+        this.auditLog = auditLog;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public BulkImportResponse importEmployees(InputStream input, Format format) throws IOException {
+        ImportResult result = new ImportResult(maxReportedErrors);
+        Set<String> seenEmails = new HashSet<>();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && line.trim().equalsIgnoreCase(CSV_HEADER))) {
+                    continue;
+                }
+
+                result.received++;
+                ImportRow row = parse(line, lineNumber, format, result);
+                if (row == null) {
+                    continue;
+                }
+                if (!seenEmails.add(row.request().email())) {
+                    result.fail(lineNumber, row.request().email(), "Duplicate email in import");
+                    continue;
+                }
+
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    importBatch(batch, result);
+                    batch.clear();
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            importBatch(batch, result);
+        }
+        return result.toResponse();
+    }
+
+    private ImportRow parse(String line, long lineNumber, Format format, ImportResult result) {
+        RegisterEmployeeRequest request;
+        try {
+            request = format == Format.CSV
+                    ? parseCsv(line)
+                    : objectMapper.readValue(line, RegisterEmployeeRequest.class);
+        }
+        catch (JsonProcessingException | IllegalArgumentException e) {
+            result.fail(lineNumber, null, format == Format.CSV ? "Expected " + CSV_HEADER : "Invalid JSON format");
+            return null;
+        }
+
+        Set<ConstraintViolation<RegisterEmployeeRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            result.fail(lineNumber, request.email(), violations.iterator().next().getMessage());
+            return null;
+        }
+        return new ImportRow(lineNumber, request);
+    }
+
+    private void importBatch(List<ImportRow> batch, ImportResult result) {
+        Set<String> existing = new HashSet<>(repo.findExistingEmails(batch.stream().map(row -> row.request().email()).toList()));
+
+        List<ImportRow> fresh = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            if (existing.contains(row.request().email())) {
+                result.fail(row.line(), row.request().email(), "An account with this email already exists");
+            }
+            else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordEncoder.encodeAll(fresh.stream().map(row -> row.request().password()).toList());
+
+        try {
+            List<Employee> employees = new ArrayList<>(fresh.size());
+            for (int i = 0; i < fresh.size(); i++) {
+                employees.add(toEmployee(fresh.get(i), hashes.get(i)));
+            }
+            transactionTemplate.executeWithoutResult(status -> persistAll(employees));
+            result.imported += employees.size();
+            directory.upsertAll(employees.stream().map(EmployeeSummary::fromEntity).toList());
+            employees.forEach(employee -> auditLog.record(AuditEvent.Action.IMPORT, employee.getId(), employee.getEmail()));
+        }
+        catch (PersistenceException | DataAccessException e) {
+            // One bad row rolls back the whole batch; retry row by row to isolate it and keep the others
+            for (int i = 0; i < fresh.size(); i++) {
+                ImportRow row = fresh.get(i);
+                Employee employee = toEmployee(row, hashes.get(i));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persistAll(List.of(employee)));
+                    result.imported++;
+                    directory.upsert(EmployeeSummary.fromEntity(employee));
+                    auditLog.record(AuditEvent.Action.IMPORT, employee.getId(), employee.getEmail());
+                }
+                catch (PersistenceException | DataAccessException rowError) {
+                    result.fail(row.line(), row.request().email(), "Could not insert employee");
+                }
+            }
+        }
+    }
+
+    private void persistAll(List<Employee> employees) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        for (Employee employee : employees) {
+            entityManager.persist(employee);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static Employee toEmployee(ImportRow row, String passwordHash) {
+        return new Employee(row.request().name(), row.request().email(), passwordHash, "USER");
+    }
+
+    private static RegisterEmployeeRequest parseCsv(String line) {
+        List<String> fields = splitCsvLine(line);
+        if (fields.size() != 3) {
+            throw new IllegalArgumentException("Expected 3 fields but got " + fields.size());
+        }
+        return new RegisterEmployeeRequest(fields.get(0), fields.get(1), fields.get(2));
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields and escaped ({@code ""}) quotes.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                }
+                else if (c == '"') {
+                    quoted = false;
+                }
+                else {
+                    field.append(c);
+                }
+            }
+            else if (c == '"') {
+                quoted = true;
+            }
+            else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            }
+            else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record ImportRow(long line, RegisterEmployeeRequest request) { }
+
+    private static final class ImportResult {
+        private final int maxReportedErrors;
+        private final List<BulkImportError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        private ImportResult(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long line, String email, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BulkImportError(line, email, message));
+            }
+        }
+
+        private BulkImportResponse toResponse() {
+            return new BulkImportResponse(received, imported, failed, errors, failed > errors.size());
+        }
+    }
+}
@@ -1,70 +1,239 @@
 package com.seriousemployee.backendtask.services;
 
+import com.seriousemployee.backendtask.dto.EmployeeCursor;
+import com.seriousemployee.backendtask.dto.EmployeeSearchCursor;
 import com.seriousemployee.backendtask.dto.RegisterEmployeeRequest;
 import com.seriousemployee.backendtask.entities.Employee;
+import com.seriousemployee.backendtask.entities.EmployeeSpecification;
+import com.seriousemployee.backendtask.exception.InvalidSearchQueryException;
+import com.seriousemployee.backendtask.exception.PreconditionFailedException;
 import com.seriousemployee.backendtask.exception.ResourceNotFoundException;
+import com.seriousemployee.backendtask.exception.SuperAdminException;
+import com.seriousemployee.backendtask.repositories.AuditEvent;
+import com.seriousemployee.backendtask.repositories.EmployeeChange;
 import com.seriousemployee.backendtask.repositories.EmployeeRepository;
+import com.seriousemployee.backendtask.repositories.EmployeeSearchHit;
+import com.seriousemployee.backendtask.repositories.EmployeeSummary;
+import com.seriousemployee.backendtask.repositories.EmployeeTokenVersion;
+import com.seriousemployee.backendtask.security.TokenVersionRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class EmployeeService {
+    // Trigram indexes cannot narrow down queries shorter than one trigram
+    private static final int MIN_SEARCH_LENGTH = 3;
+    private static final int MAX_SEARCH_LENGTH = 100;
+
     private final EmployeeRepository repo;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final EmployeeDirectory directory;
+    private final RefreshTokenService refreshTokenService;
+    private final AuditLog auditLog;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public EmployeeService(EmployeeRepository repo) {
+    @Value("${serious-app.search.max-results:500}")
+    private int maxSearchResults;
+
+    public EmployeeService(EmployeeRepository repo, TokenVersionRegistry tokenVersionRegistry, EmployeeDirectory directory,
+                           RefreshTokenService refreshTokenService, AuditLog auditLog) {
         this.repo = repo;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.directory = directory;
+        this.refreshTokenService = refreshTokenService;
+        this.auditLog = auditLog;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<EmployeeSummary> findAllEmployees(Specification<Employee> spec, Pageable pageable) {
+        List<EmployeeSummary> content = repo.findSummaries(spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        // Skips the count when the page itself shows where the result ends
+        return PageableExecutionUtils.getPage(content, pageable, () -> repo.count(spec));
     }
 
-    public List<Employee> getAllEmployees() {
-        return repo.findAll();
+    /**
+     * Keyset page ordered by {@code (createdAt, id)}: seeks past the cursor instead of skipping rows,
+     * and fetches one extra row to learn whether another page exists instead of counting.
+     */
+    @Transactional(readOnly = true)
+    public Slice<EmployeeSummary> findEmployeesAfter(Specification<Employee> spec, EmployeeCursor cursor, boolean ascending, int size) {
+        Sort sort = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, "createdAt", "id");
+
+        if (cursor != null) {
+            spec = spec.and(EmployeeSpecification.seekAfter(cursor.createdAt(), cursor.id(), ascending));
+        }
+
+        return findEmployeesSlice(spec, PageRequest.of(0, size, sort));
     }
 
-    public Page<Employee> findAllEmployees(Specification<Employee> spec, Pageable pageable) {
-        return repo.findAll(spec, pageable);
+    /**
+     * Page without a total: fetches one extra row to learn whether another page exists, so no count query runs.
+     */
+    @Transactional(readOnly = true)
+    public Slice<EmployeeSummary> findEmployeesSlice(Specification<Employee> spec, Pageable pageable) {
+        int size = pageable.getPageSize();
+        List<EmployeeSummary> rows = repo.findSummaries(spec, pageable.getSort(), pageable.getOffset(), size + 1);
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
     }
 
-    public Employee updateEmployee(Long id, RegisterEmployeeRequest employeeRequest, boolean promotion) {
+    /**
+     * Ranked substring and fuzzy search over name and email. Pages follow the ranking by {@code (score, id)}
+     * and end after the {@code serious-app.search.max-results} best matches.
+     */
+    @Transactional(readOnly = true)
+    public Slice<EmployeeSearchHit> searchEmployees(String query, EmployeeSearchCursor cursor, int size) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.length() < MIN_SEARCH_LENGTH || trimmed.length() > MAX_SEARCH_LENGTH) {
+            throw new InvalidSearchQueryException(
+                    "Search query must be between " + MIN_SEARCH_LENGTH + " and " + MAX_SEARCH_LENGTH + " characters");
+        }
+
+        List<EmployeeSearchHit> rows = cursor == null
+                ? repo.search(trimmed, null, null, size + 1, maxSearchResults)
+                : repo.search(trimmed, cursor.score(), cursor.id(), size + 1, maxSearchResults);
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.ofSize(size), hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public long estimateEmployeeCount(String role, LocalDate before, LocalDate after) {
+        return repo.estimateCount(role, before, after);
+    }
+
+    /**
+     * Updates the employee's own details. When {@code expectedVersion} is not null the update only applies to that
+     * version; a concurrent write in between is caught by the {@code @Version} check on save.
+     */
+    public Employee updateEmployee(Long id, RegisterEmployeeRequest employeeRequest, Long expectedVersion) {
         Employee employee = repo.findById(id).orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
-        if (employee != null) {
-            if (employeeRequest != null) {
-                String encodedPassword = passwordEncoder.encode(employeeRequest.password());
-                employee.setName(employeeRequest.name());
-                employee.setEmail(employeeRequest.email());
-                employee.setPassword(encodedPassword);
-            }
-            else {
-                if (!employee.getRole().equals("SUPERADMIN")) {
-                    employee.setRole(promotion ? "ADMIN" : "USER");
-                }
+        if (expectedVersion != null && employee.getVersion() != expectedVersion) {
+            throw stale();
+        }
+        String encodedPassword = passwordEncoder.encode(employeeRequest.password());
+        employee.setName(employeeRequest.name());
+        employee.setEmail(employeeRequest.email());
+        employee.setPassword(encodedPassword);
+
+        Employee saved = repo.save(employee);
+        // Earlier tokens stay valid; the new row version has their principal reloaded until they are refreshed
+        tokenVersionRegistry.update(saved.getId(), saved.getTokenVersion(), saved.getVersion());
+        directory.upsert(EmployeeSummary.fromEntity(saved));
+        auditLog.record(AuditEvent.Action.UPDATE, saved.getId(), saved.getEmail());
+        return saved;
+    }
+
+    @Transactional
+    public EmployeeSummary changeRole(Long id, String role, Long expectedVersion) {
+        EmployeeChange change = applyRoleChanges(List.of(id), role, expectedVersion).get(0);
+        return switch (change.outcome()) {
+            case APPLIED, UNCHANGED -> change.employee();
+            case PROTECTED -> throw new SuperAdminException("Cannot complete this action.");
+            case NOT_FOUND -> throw new ResourceNotFoundException("Employee not found with id: " + id);
+            case STALE -> throw stale();
+        };
+    }
+
+    @Transactional
+    public List<EmployeeChange> changeRoles(Collection<Long> ids, String role) {
+        return applyRoleChanges(new LinkedHashSet<>(ids), role, null);
+    }
+
+    // Demotions revoke the employee's tokens; after a promotion they keep working and their principal is reloaded
+    private List<EmployeeChange> applyRoleChanges(Collection<Long> ids, String role, Long expectedVersion) {
+        boolean promotion = "ADMIN".equals(role);
+        List<EmployeeChange> changes = repo.changeRoles(ids, role, expectedVersion, !promotion);
+        List<EmployeeSummary> changed = new ArrayList<>(changes.size());
+        for (EmployeeChange change : changes) {
+            if (change.outcome() == EmployeeChange.Outcome.APPLIED) {
+                tokenVersionRegistry.update(change.id(), change.tokenVersion(), change.employee().version());
+                changed.add(change.employee());
             }
+        }
+        directory.upsertAll(changed);
+        auditLog.recordAll(promotion ? AuditEvent.Action.PROMOTE : AuditEvent.Action.DEMOTE,
+                changed.stream().map(EmployeeSummary::id).toList(), role);
+        return changes;
+    }
 
-            return repo.save(employee);
+    /**
+     * Deletes the listed employees in one statement. Only the super admin may delete other admins.
+     */
+    @Transactional
+    public List<EmployeeChange> deleteEmployees(Collection<Long> ids, Long callerId, boolean callerIsSuperAdmin) {
+        Set<String> protectedRoles = callerIsSuperAdmin ? Set.of() : Set.of("ADMIN");
+        List<EmployeeChange> changes = repo.deleteUnprotected(new LinkedHashSet<>(ids), protectedRoles, callerId);
+        List<Long> deleted = new ArrayList<>(changes.size());
+        for (EmployeeChange change : changes) {
+            if (change.outcome() == EmployeeChange.Outcome.APPLIED) {
+                tokenVersionRegistry.markDeleted(change.id());
+                deleted.add(change.id());
+            }
         }
-        return null;
+        directory.remove(deleted);
+        auditLog.recordAll(AuditEvent.Action.DELETE, deleted, null);
+        return changes;
     }
 
-    public Employee getEmployeeById(Long id) {
-        return repo.findById(id).orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
+    @Transactional(readOnly = true)
+    public EmployeeSummary getEmployeeById(Long id) {
+        return repo.findSummaryById(id).orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
     }
 
-    public Employee getEmployeeByEmail(String email) {
-        return repo.findByEmail(email).orElseThrow(() -> new ResourceNotFoundException("Employee not found with email: " + email));
+    @Transactional(readOnly = true)
+    public EmployeeSummary getEmployeeByEmail(String email) {
+        return repo.findSummaryByEmail(email).orElseThrow(() -> new ResourceNotFoundException("Employee not found with email: " + email));
     }
 
-    public void deleteEmployee(Long id) {
-        repo.deleteById(id);
+    /**
+     * Revokes every token issued to the employee so far by moving their token version forward.
+     */
+    @Transactional
+    public void revokeTokens(Long id) {
+        if (repo.incrementTokenVersion(id) == 0) {
+            throw new ResourceNotFoundException("Employee not found with id: " + id);
+        }
+        EmployeeTokenVersion current = repo.findTokenVersionById(id).orElseThrow();
+        tokenVersionRegistry.update(id, current.tokenVersion(), current.version());
+        refreshTokenService.revokeAll(id);
+        auditLog.record(AuditEvent.Action.REVOKE_TOKENS, id, null);
+    }
+
+    /**
+     * Deletes one employee in a single statement, under the same rules as {@link #deleteEmployees}.
+     */
+    @Transactional
+    public void deleteEmployee(Long id, Long callerId, boolean callerIsSuperAdmin) {
+        EmployeeChange change = deleteEmployees(List.of(id), callerId, callerIsSuperAdmin).get(0);
+        switch (change.outcome()) {
+            case APPLIED, UNCHANGED -> { }
+            case PROTECTED -> throw new SuperAdminException("You do not have permission to delete this employee.");
+            case NOT_FOUND -> throw new ResourceNotFoundException("Employee not found with id: " + id);
+            case STALE -> throw stale();
+        }
     }
 
-    public void deleteEmployee(Employee employee) {
-        repo.delete(employee);
+    private static PreconditionFailedException stale() {
+        return new PreconditionFailedException("Employee has been modified since it was read");
     }
 }
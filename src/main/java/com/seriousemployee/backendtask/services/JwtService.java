@@ -1,41 +1,106 @@
 package com.seriousemployee.backendtask.services;
 
+import com.seriousemployee.backendtask.security.EmployeeDetails;
+import com.seriousemployee.backendtask.security.JwtKeyRing;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
+    public static final String CLAIM_EMPLOYEE_ID = "eid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_VERSION = "rev";
+
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+    private final VerifiedTokenCache verifiedTokens;
+    private final Timer cachedVerifications;
+    private final Timer parsedVerifications;
+    private final Timer rejectedVerifications;
+
+    public JwtService(JwtKeyRing keyRing,
+                      @Value("${security.jwt.expiration}") long jwtExpiration,
+                      @Value("${security.jwt.cache.max-entries:10000}") int cacheMaxEntries,
+                      MeterRegistry meterRegistry) {
+        // The parser is immutable and thread-safe, so build it once instead of per token; keys are resolved by kid
+        this.keyRing = keyRing;
+        this.parser = Jwts.parser()
+                .keyLocator(keyRing::locate)
+                .build();
+        this.jwtExpiration = jwtExpiration;
+        this.verifiedTokens = new VerifiedTokenCache(cacheMaxEntries);
+        this.cachedVerifications = verificationTimer(meterRegistry, "cached");
+        this.parsedVerifications = verificationTimer(meterRegistry, "parsed");
+        this.rejectedVerifications = verificationTimer(meterRegistry, "rejected");
+    }
 
-    @Value("${security.jwt.secret-key}")
-    private String secretKey;
-
-    @Value("${security.jwt.expiration}")
-    private long jwtExpiration;
+    /**
+     * Parses and verifies the token once and returns its claims.
+     * Tokens that were already verified and have not expired are served from a bounded cache,
+     * skipping the signature check and JSON parsing.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, has a bad signature or has expired
+     */
+    public Claims verifyToken(String token) {
+        long start = System.nanoTime();
+        Claims claims = verifiedTokens.get(token);
+        if (claims != null) {
+            cachedVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        }
+
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        }
+        catch (JwtException e) {
+            rejectedVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        verifiedTokens.put(token, claims);
+        parsedVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = extractAllClaims(token);
-        return resolver.apply(claims);
+        return resolver.apply(verifyToken(token));
     }
 
     public String generateToken(UserDetails userDetails) {
         return generateToken(Map.of(), userDetails);
     }
 
+    /**
+     * Issues a token that also carries the employee id, role, token version and row version, so the principal
+     * can be rebuilt from the token alone. Every token gets a random {@code jti} so it can be revoked on its own.
+     */
+    public String generateToken(EmployeeDetails employeeDetails) {
+        return generateToken(Map.of(
+                CLAIM_EMPLOYEE_ID, employeeDetails.getId(),
+                CLAIM_ROLE, employeeDetails.getRole(),
+                CLAIM_TOKEN_VERSION, employeeDetails.getTokenVersion(),
+                CLAIM_VERSION, employeeDetails.getVersion()
+        ), employeeDetails);
+    }
+
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return buildToken(extraClaims, userDetails, jwtExpiration);
     }
@@ -51,39 +116,64 @@ public class JwtService {
         Date now = new Date();
         Date exp = new Date(now.getTime() + expiration);
 
-        return Jwts.builder()
-                .claims(extraClaims)
-                .subject(user.getUsername())
-                .issuedAt(now)
-                .expiration(exp)
-                .signWith(getSignInKey(), Jwts.SIG.HS256)   // NEW SIGNATURE SYSTEM
+        return keyRing.sign(Jwts.builder()
+                        .id(UUID.randomUUID().toString())
+                        .claims(extraClaims)
+                        .subject(user.getUsername())
+                        .issuedAt(now)
+                        .expiration(exp))
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        return extractUsername(token).equals(userDetails.getUsername()) &&
-                !isTokenExpired(token);
+    /**
+     * Rebuilds the principal from verified claims, or returns {@code null} for tokens issued without principal claims.
+     * Tokens issued before the row version claim existed count as row version 0, so they are reloaded once the
+     * employee has changed.
+     */
+    public EmployeeDetails toEmployeeDetails(Claims claims) {
+        Number id = claims.get(CLAIM_EMPLOYEE_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        Number version = claims.get(CLAIM_VERSION, Number.class);
+
+        if (id == null || role == null || tokenVersion == null) {
+            return null;
+        }
+        return new EmployeeDetails(id.longValue(), claims.getSubject(), role, tokenVersion.intValue(),
+                version == null ? 0 : version.longValue());
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(verifyToken(token), userDetails);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Checks already verified claims against the given user. Signature and expiry were checked by {@link #verifyToken}.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return isIssuedTo(claims, userDetails) &&
+                !isTokenExpired(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        JwtParser parser = Jwts.parser()
-                .verifyWith(getSignInKey())   // NEW VERIFY SIGNATURE (no parserBuilder)
-                .build();
+    // Employees can change their email, so tokens carrying an id are matched by id rather than by subject
+    private boolean isIssuedTo(Claims claims, UserDetails userDetails) {
+        Number id = claims.get(CLAIM_EMPLOYEE_ID, Number.class);
+        if (id != null && userDetails instanceof EmployeeDetails employee) {
+            return employee.getId() != null && id.longValue() == employee.getId();
+        }
+        return userDetails.getUsername().equals(claims.getSubject());
+    }
 
-        return parser.parseSignedClaims(token).getPayload();
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("app.jwt.verification")
+                .description("JWT parsing and signature verification")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private boolean isTokenExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
     }
 }
-
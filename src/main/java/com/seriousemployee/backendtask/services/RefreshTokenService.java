@@ -0,0 +1,127 @@
+package com.seriousemployee.backendtask.services;
+
+import com.seriousemployee.backendtask.exception.InvalidRefreshTokenException;
+import com.seriousemployee.backendtask.repositories.RefreshTokenRepository;
+import com.seriousemployee.backendtask.security.EmployeeDetails;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Opaque, rotating refresh tokens. Tokens carry 256 random bits, so a single SHA-256 is enough to store them safely
+ * and renewing a session never touches the password hasher. Each rotation retires the presented token; presenting
+ * a retired one again means it leaked, and the whole family is revoked.
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository repo;
+    private final long expirationMillis;
+    private final SecureRandom random = new SecureRandom();
+    private final Counter rotated;
+    private final Counter reused;
+    private final Counter rejected;
+
+    public RefreshTokenService(RefreshTokenRepository repo,
+                               @Value("${security.jwt.refresh.expiration:1209600000}") long expirationMillis,
+                               MeterRegistry meterRegistry) {
+        this.repo = repo;
+        this.expirationMillis = expirationMillis;
+        this.rotated = meterRegistry.counter("app.auth.refresh", "outcome", "rotated");
+        this.reused = meterRegistry.counter("app.auth.refresh", "outcome", "reused");
+        this.rejected = meterRegistry.counter("app.auth.refresh", "outcome", "rejected");
+    }
+
+    /**
+     * Starts a new token family for a fresh login.
+     */
+    public String issue(Long employeeId) {
+        return issue(UUID.randomUUID(), employeeId);
+    }
+
+    /**
+     * Retires the presented token and issues its successor. Returns the employee the token belongs to, as they
+     * are now, so the new access token reflects role changes.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String token) {
+        byte[] hash = hash(token);
+        Optional<RefreshTokenRepository.Rotation> used = repo.use(hash);
+
+        if (used.isEmpty()) {
+            Optional<UUID> family = repo.findUsedFamily(hash);
+            if (family.isPresent()) {
+                repo.deleteFamily(family.get());
+                reused.increment();
+                log.warn("Refresh token reused, revoked its token family {}", family.get());
+            }
+            else {
+                rejected.increment();
+            }
+            throw new InvalidRefreshTokenException("Invalid or expired refresh token");
+        }
+
+        RefreshTokenRepository.Rotation rotation = used.get();
+        rotated.increment();
+        EmployeeDetails employee = new EmployeeDetails(rotation.employeeId(), rotation.email(), rotation.role(),
+                rotation.tokenVersion(), rotation.version());
+        return new Rotation(employee, issue(rotation.familyId(), rotation.employeeId()));
+    }
+
+    /**
+     * Revokes the token and every token rotated from the same login. Tokens of other employees are left alone.
+     */
+    public void revoke(String token, Long employeeId) {
+        repo.deleteFamilyOf(hash(token), employeeId);
+    }
+
+    public void revokeAll(Long employeeId) {
+        repo.deleteByEmployee(employeeId);
+    }
+
+    public long getExpirationTime() {
+        return expirationMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.refresh.purge-interval-ms:3600000}",
+            initialDelayString = "${security.jwt.refresh.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = repo.deleteExpired();
+        log.debug("Purged {} expired refresh tokens", deleted);
+    }
+
+    private String issue(UUID familyId, Long employeeId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        repo.insert(hash(token), familyId, employeeId, Instant.now().plusMillis(expirationMillis));
+        return token;
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record Rotation(EmployeeDetails employee, String refreshToken) { }
+}
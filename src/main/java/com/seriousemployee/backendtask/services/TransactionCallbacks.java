@@ -0,0 +1,30 @@
+package com.seriousemployee.backendtask.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects of a transaction (in-memory copies, audit events) until it has committed, so a rollback
+ * never leaves them behind.
+ */
+final class TransactionCallbacks {
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * Runs the action once the surrounding transaction commits, or right away outside one.
+     */
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+        else {
+            action.run();
+        }
+    }
+}
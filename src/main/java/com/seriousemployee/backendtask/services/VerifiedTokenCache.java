@@ -0,0 +1,76 @@
+package com.seriousemployee.backendtask.services;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified, keyed by the raw token string.
+ * Entries are only returned while the token is still unexpired; expired entries are dropped on access
+ * and swept out when the cache fills up.
+ */
+class VerifiedTokenCache {
+    private final int maxEntries;
+    private final Map<String, Claims> entries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>(Math.max(16, Math.min(maxEntries, 1 << 16)));
+    }
+
+    Claims get(String token) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+
+        Claims claims = entries.get(token);
+        if (claims == null) {
+            return null;
+        }
+
+        if (isExpired(claims, System.currentTimeMillis())) {
+            entries.remove(token, claims);
+            return null;
+        }
+        return claims;
+    }
+
+    void put(String token, Claims claims) {
+        if (maxEntries <= 0 || claims.getExpiration() == null) {
+            return;
+        }
+
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(token, claims);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(claims -> isExpired(claims, now));
+        if (entries.size() < maxEntries) {
+            return;
+        }
+
+        // Still full of live tokens: drop roughly a tenth of them, in no particular order
+        int toRemove = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static boolean isExpired(Claims claims, long now) {
+        Date expiration = claims.getExpiration();
+        return expiration == null || expiration.getTime() <= now;
+    }
+}
@@ -0,0 +1,7 @@
+create extension if not exists pg_trgm;
+
+create index employees_name_trgm_idx
+on employees using gin (name gin_trgm_ops);
+
+create index employees_email_trgm_idx
+on employees using gin (email gin_trgm_ops);
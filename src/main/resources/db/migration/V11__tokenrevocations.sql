@@ -0,0 +1,7 @@
+create table token_revocations (
+    jti uuid primary key,
+    expires_at timestamp not null
+);
+
+create index token_revocations_expires_at_idx
+on token_revocations (expires_at);
@@ -0,0 +1,16 @@
+create table refresh_tokens (
+    token_hash bytea primary key,   -- SHA-256 of the token; the token itself is never stored
+    family_id uuid not null,
+    employee_id bigint not null references employees (id) on delete cascade,
+    expires_at timestamp not null,
+    used_at timestamp
+);
+
+create index refresh_tokens_family_id_idx
+on refresh_tokens (family_id);
+
+create index refresh_tokens_employee_id_idx
+on refresh_tokens (employee_id);
+
+create index refresh_tokens_expires_at_idx
+on refresh_tokens (expires_at);
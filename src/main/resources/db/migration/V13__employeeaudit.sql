@@ -0,0 +1,14 @@
+create table employee_audit (
+    id bigserial primary key,
+    occurred_at timestamp not null,
+    action varchar(20) not null,
+    employee_id bigint,   -- no foreign key, entries outlive deleted employees
+    actor_id bigint,
+    details varchar(255)
+);
+
+create index employee_audit_employee_id_idx
+on employee_audit (employee_id, occurred_at);
+
+create index employee_audit_occurred_at_idx
+on employee_audit (occurred_at);
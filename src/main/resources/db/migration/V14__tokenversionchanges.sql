@@ -0,0 +1,31 @@
+-- Feed of token version changes, so every instance can catch up on revocations made by the others
+create table token_version_changes (
+    id bigserial primary key,
+    employee_id bigint not null,    -- no foreign key, deletes are recorded too
+    token_version integer not null, -- -1 when the employee was deleted
+    changed_at timestamp not null default clock_timestamp()
+);
+
+create index token_version_changes_changed_at_idx
+on token_version_changes (changed_at);
+
+create function record_token_version_change() returns trigger as $$
+begin
+    if tg_op = 'DELETE' then
+        insert into token_version_changes (employee_id, token_version) values (old.id, -1);
+    else
+        insert into token_version_changes (employee_id, token_version) values (new.id, new.token_version);
+    end if;
+    return null;
+end;
+$$ language plpgsql;
+
+create trigger employees_token_version_changed
+after update of token_version on employees
+for each row when (old.token_version is distinct from new.token_version)
+execute function record_token_version_change();
+
+create trigger employees_deleted
+after delete on employees
+for each row
+execute function record_token_version_change();
@@ -0,0 +1,6 @@
+-- Lets every instance poll for revocations made by the others since its last look
+alter table token_revocations
+add column revoked_at timestamp not null default clock_timestamp();
+
+create index token_revocations_revoked_at_idx
+on token_revocations (revoked_at);
@@ -0,0 +1,20 @@
+-- Row version changes are fed too, so other instances reload principals whose token claims went out of date
+alter table token_version_changes add column version bigint not null default 0;
+
+create or replace function record_token_version_change() returns trigger as $$
+begin
+    if tg_op = 'DELETE' then
+        insert into token_version_changes (employee_id, token_version, version) values (old.id, -1, old.version);
+    else
+        insert into token_version_changes (employee_id, token_version, version) values (new.id, new.token_version, new.version);
+    end if;
+    return null;
+end;
+$$ language plpgsql;
+
+drop trigger employees_token_version_changed on employees;
+
+create trigger employees_token_version_changed
+after update of token_version, version on employees
+for each row when (old.token_version is distinct from new.token_version or old.version is distinct from new.version)
+execute function record_token_version_change();
@@ -0,0 +1,3 @@
+-- Without a time zone the poll watermark and changed_at only agree when every session uses the same time zone
+alter table token_version_changes
+alter column changed_at type timestamptz;
@@ -0,0 +1,3 @@
+-- Without a time zone the poll watermark and revoked_at only agree when every session uses the same time zone
+alter table token_revocations
+alter column revoked_at type timestamptz;
@@ -0,0 +1,2 @@
+alter table employees
+add column token_version integer not null default 0;
@@ -0,0 +1,5 @@
+create index employees_created_at_id_idx
+on employees (created_at, id);
+
+create index employees_role_created_at_id_idx
+on employees (role, created_at, id);
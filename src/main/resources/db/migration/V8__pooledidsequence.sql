@@ -0,0 +1,2 @@
+-- Hibernate hands out ids from blocks of 50 (pooled optimizer), so inserts can be batched
+alter sequence employees_id_seq increment by 50;
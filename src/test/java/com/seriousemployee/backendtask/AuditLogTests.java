@@ -0,0 +1,47 @@
+package com.seriousemployee.backendtask;
+
+import com.seriousemployee.backendtask.dto.SuperAdminDTO;
+import com.seriousemployee.backendtask.services.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static com.seriousemployee.backendtask.support.QueryCountAssertions.assertStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "serious-app.audit.flush-interval-ms=10")
+class AuditLogTests {
+
+	@Autowired
+	private EmployeeService service;
+
+	@Autowired
+	private SuperAdminDTO superAdminDTO;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void changeIsAuditedOffTheCallingThread() throws InterruptedException {
+		Long id = service.getEmployeeByEmail(superAdminDTO.getUsername()).id();
+		long before = auditedRevocations(id);
+
+		// Bump the token version, read it back, drop refresh tokens; the audit insert is not one of them
+		assertStatements(3, () -> {
+			service.revokeTokens(id);
+			return null;
+		});
+
+		for (int i = 0; i < 100 && auditedRevocations(id) == before; i++) {
+			Thread.sleep(20);
+		}
+		assertEquals(before + 1, auditedRevocations(id));
+	}
+
+	private long auditedRevocations(Long id) {
+		return jdbcTemplate.queryForObject(
+				"select count(*) from employee_audit where employee_id = ? and action = 'REVOKE_TOKENS'", Long.class, id);
+	}
+
+}
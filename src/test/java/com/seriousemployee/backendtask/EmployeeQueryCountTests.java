@@ -0,0 +1,73 @@
+package com.seriousemployee.backendtask;
+
+import com.seriousemployee.backendtask.dto.SuperAdminDTO;
+import com.seriousemployee.backendtask.entities.EmployeeSpecification;
+import com.seriousemployee.backendtask.services.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static com.seriousemployee.backendtask.support.QueryCountAssertions.assertMaxStatements;
+import static com.seriousemployee.backendtask.support.QueryCountAssertions.assertStatements;
+
+@SpringBootTest
+class EmployeeQueryCountTests {
+
+	@Autowired
+	private EmployeeService service;
+
+	@Autowired
+	private SuperAdminDTO superAdminDTO;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void lookupByEmailIsOneStatement() {
+		assertStatements(1, () -> service.getEmployeeByEmail(superAdminDTO.getUsername()));
+	}
+
+	@Test
+	void slicesNeverCount() {
+		assertStatements(1, () -> service.findEmployeesSlice(
+				EmployeeSpecification.build(null, null, null),
+				PageRequest.of(0, 10, Sort.by("createdAt").descending())));
+		assertStatements(1, () -> service.findEmployeesAfter(EmployeeSpecification.build(null, null, null), null, false, 10));
+	}
+
+	@Test
+	void pageListingIssuesAtMostOneCount() {
+		assertMaxStatements(2, () -> service.findAllEmployees(
+				EmployeeSpecification.build(null, null, null),
+				PageRequest.of(0, 10, Sort.by("createdAt").descending())));
+	}
+
+	@Test
+	void searchIsOneStatement() {
+		assertStatements(1, () -> service.searchEmployees("seriouscompany", null, 10));
+	}
+
+	@Test
+	void bulkRoleChangeIsOneStatement() {
+		assertStatements(1, () -> service.changeRoles(List.of(-1L, -2L), "ADMIN"));
+	}
+
+	@Test
+	void deleteIsOneStatement() {
+		Long id = jdbcTemplate.queryForObject(
+				"insert into employees (name, email, password, role) values ('Query Count', 'query-count@example.com', 'x', 'USER') returning id",
+				Long.class);
+		Long callerId = service.getEmployeeByEmail(superAdminDTO.getUsername()).id();
+
+		assertStatements(1, () -> {
+			service.deleteEmployee(id, callerId, true);
+			return null;
+		});
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.seriousemployee.backendtask;
+
+import com.seriousemployee.backendtask.security.EmployeeDetails;
+import com.seriousemployee.backendtask.security.JwtKeyRing;
+import com.seriousemployee.backendtask.security.JwtSigningProperties;
+import com.seriousemployee.backendtask.services.JwtService;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtKeyRingTests {
+	private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+	private static final EmployeeDetails EMPLOYEE = new EmployeeDetails(1L, "john.doe@company.com", "USER", 0, 0);
+
+	@Test
+	void retiredKeyVerifiesUntilItsTokensExpire() {
+		JwtKeyRing keyRing = JwtKeyRing.generated(SECRET, 60_000, "EdDSA");
+		JwtService jwtService = new JwtService(keyRing, 60_000, 0, new SimpleMeterRegistry());
+		String token = jwtService.generateToken(EMPLOYEE);
+
+		keyRing.rotate();
+		assertEquals(EMPLOYEE.getUsername(), jwtService.extractUsername(token));
+	}
+
+	@Test
+	void expiredKeyNoLongerVerifies() {
+		JwtKeyRing keyRing = JwtKeyRing.generated(SECRET, 0, "ES256");
+		JwtService jwtService = new JwtService(keyRing, 60_000, 0, new SimpleMeterRegistry());
+		String token = jwtService.generateToken(EMPLOYEE);
+
+		keyRing.rotate();
+		keyRing.rotate();
+		assertThrows(SignatureException.class, () -> jwtService.extractUsername(token));
+	}
+
+	@Test
+	void jwksPublishesActiveAndNextKey() {
+		JwtKeyRing keyRing = JwtKeyRing.generated(SECRET, 60_000, "EdDSA");
+		List<?> keys = (List<?>) keyRing.getJwks().get("keys");
+
+		assertEquals(2, keys.size());
+		assertTrue(keys.stream().allMatch(key -> "OKP".equals(((Map<?, ?>) key).get("kty"))));
+	}
+
+	@Test
+	void blankActiveKidSignsWithFirstConfiguredKey() throws Exception {
+		JwtSigningProperties properties = configured("");
+		JwtKeyRing keyRing = new JwtKeyRing(SECRET, 60_000, properties);
+		JwtService jwtService = new JwtService(keyRing, 60_000, 0, new SimpleMeterRegistry());
+
+		String token = jwtService.generateToken(EMPLOYEE);
+		assertEquals(EMPLOYEE.getUsername(), jwtService.extractUsername(token));
+		assertEquals("first", kidOf(token));
+		assertEquals(2, ((List<?>) keyRing.getJwks().get("keys")).size());
+	}
+
+	@Test
+	void activeKidSelectsConfiguredKey() throws Exception {
+		JwtKeyRing keyRing = new JwtKeyRing(SECRET, 60_000, configured("second"));
+		JwtService jwtService = new JwtService(keyRing, 60_000, 0, new SimpleMeterRegistry());
+
+		String token = jwtService.generateToken(EMPLOYEE);
+		assertEquals(EMPLOYEE.getUsername(), jwtService.extractUsername(token));
+		assertEquals("second", kidOf(token));
+	}
+
+	@Test
+	void sharedSecretRingPublishesNoKeys() {
+		assertTrue(((List<?>) JwtKeyRing.hmac(SECRET, 60_000).getJwks().get("keys")).isEmpty());
+	}
+
+	private static JwtSigningProperties configured(String activeKid) throws Exception {
+		JwtSigningProperties properties = new JwtSigningProperties();
+		properties.setAlgorithm("EdDSA");
+		properties.setActiveKid(activeKid);
+		properties.setKeys(List.of(pemKey("first"), pemKey("second")));
+		return properties;
+	}
+
+	private static JwtSigningProperties.Key pemKey(String kid) throws Exception {
+		KeyPair pair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+		JwtSigningProperties.Key key = new JwtSigningProperties.Key();
+		key.setKid(kid);
+		key.setPrivateKey(pem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+		key.setPublicKey(pem("PUBLIC KEY", pair.getPublic().getEncoded()));
+		return key;
+	}
+
+	private static String pem(String type, byte[] der) {
+		return "-----BEGIN " + type + "-----\n"
+				+ Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+				+ "\n-----END " + type + "-----\n";
+	}
+
+	private static String kidOf(String token) {
+		String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+		return header.replaceAll(".*\"kid\":\"([^\"]+)\".*", "$1");
+	}
+
+}
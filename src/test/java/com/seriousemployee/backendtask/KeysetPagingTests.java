@@ -0,0 +1,72 @@
+package com.seriousemployee.backendtask;
+
+import com.seriousemployee.backendtask.dto.EmployeeCursor;
+import com.seriousemployee.backendtask.entities.Employee;
+import com.seriousemployee.backendtask.repositories.EmployeeSummary;
+import com.seriousemployee.backendtask.services.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class KeysetPagingTests {
+
+	private static final String PREFIX = "keyset-tie-";
+
+	@Autowired
+	private EmployeeService service;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void removeEmployees() {
+		jdbcTemplate.update("delete from employees where email like ?", PREFIX + "%");
+	}
+
+	@Test
+	void pagesThroughTiedTimestampsInBothDirections() {
+		LocalDateTime tied = LocalDateTime.of(2001, 1, 1, 12, 0);
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			// Two distinct timestamps around a run of five identical ones
+			LocalDateTime createdAt = i == 0 ? tied.minusSeconds(1) : i == 6 ? tied.plusSeconds(1) : tied;
+			ids.add(insert(i, createdAt));
+		}
+
+		assertEquals(ids, pageAll(true));
+		assertEquals(ids.reversed(), pageAll(false));
+	}
+
+	private List<Long> pageAll(boolean ascending) {
+		Specification<Employee> ours = (root, query, builder) -> builder.like(root.get("email"), PREFIX + "%");
+		List<Long> seen = new ArrayList<>();
+		EmployeeCursor cursor = null;
+		Slice<EmployeeSummary> page;
+		do {
+			page = service.findEmployeesAfter(ours, cursor, ascending, 2);
+			page.forEach(employee -> seen.add(employee.id()));
+			EmployeeSummary last = page.getContent().getLast();
+			cursor = new EmployeeCursor(last.createdAt(), last.id());
+		} while (page.hasNext());
+		return seen;
+	}
+
+	private Long insert(int i, LocalDateTime createdAt) {
+		return jdbcTemplate.queryForObject(
+				"insert into employees (name, email, password, role, created_at) values (?, ?, 'x', 'USER', ?) returning id",
+				Long.class, PREFIX + i, PREFIX + i + "@example.com", Timestamp.valueOf(createdAt));
+	}
+
+}
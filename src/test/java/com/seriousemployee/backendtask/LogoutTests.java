@@ -0,0 +1,100 @@
+package com.seriousemployee.backendtask;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seriousemployee.backendtask.dto.LoginEmployeeRequest;
+import com.seriousemployee.backendtask.dto.RegisterEmployeeRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LogoutTests {
+	private static final String EMAIL = "logout.everywhere@company.com";
+	private static final String PASSWORD = "Logout123";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void removeEmployee() {
+		jdbcTemplate.update("delete from employees where email = ?", EMAIL);
+	}
+
+	@Test
+	void logoutEverywhereRevokesEarlierTokens() throws Exception {
+		mockMvc.perform(post("/api/v1/auth/register")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(credentials(true)))
+				.andExpect(status().isOk());
+		String first = login();
+		String second = login();
+		mockMvc.perform(get("/api/v1/employees/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + first))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(post("/api/v1/auth/logout")
+						.param("everywhere", "true")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + second))
+				.andExpect(status().isNoContent());
+
+		mockMvc.perform(get("/api/v1/employees/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + first))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/v1/employees/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + second))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/v1/employees/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + login()))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void profileUpdateKeepsEarlierTokens() throws Exception {
+		mockMvc.perform(post("/api/v1/auth/register")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(credentials(true)))
+				.andExpect(status().isOk());
+		String token = login();
+
+		mockMvc.perform(put("/api/v1/employees/updateMyInfo")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(new RegisterEmployeeRequest("Logout Elsewhere", EMAIL, PASSWORD)))
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/v1/employees/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Logout Elsewhere"));
+	}
+
+	private String login() throws Exception {
+		String body = mockMvc.perform(post("/api/v1/auth/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(credentials(false)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body).get("token").asText();
+	}
+
+	private String credentials(boolean withName) throws Exception {
+		return objectMapper.writeValueAsString(withName
+				? new RegisterEmployeeRequest("Logout Everywhere", EMAIL, PASSWORD)
+				: new LoginEmployeeRequest(EMAIL, PASSWORD));
+	}
+
+}
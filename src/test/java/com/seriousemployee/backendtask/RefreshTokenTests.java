@@ -0,0 +1,67 @@
+package com.seriousemployee.backendtask;
+
+import com.seriousemployee.backendtask.dto.SuperAdminDTO;
+import com.seriousemployee.backendtask.exception.InvalidRefreshTokenException;
+import com.seriousemployee.backendtask.services.EmployeeService;
+import com.seriousemployee.backendtask.services.RefreshTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class RefreshTokenTests {
+
+	@Autowired
+	private RefreshTokenService refreshTokens;
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Autowired
+	private SuperAdminDTO superAdminDTO;
+
+	@Test
+	void rotationIssuesSuccessorForSameEmployee() {
+		Long id = superAdminId();
+		String token = refreshTokens.issue(id);
+
+		RefreshTokenService.Rotation rotation = refreshTokens.rotate(token);
+		assertEquals(id, rotation.employee().getId());
+		assertNotEquals(token, rotation.refreshToken());
+	}
+
+	@Test
+	void reusedTokenRevokesItsFamily() {
+		String token = refreshTokens.issue(superAdminId());
+		String successor = refreshTokens.rotate(token).refreshToken();
+
+		assertThrows(InvalidRefreshTokenException.class, () -> refreshTokens.rotate(token));
+		assertThrows(InvalidRefreshTokenException.class, () -> refreshTokens.rotate(successor));
+	}
+
+	@Test
+	void revokeOnlyAppliesToTheOwnersTokens() {
+		Long id = superAdminId();
+		String token = refreshTokens.issue(id);
+
+		refreshTokens.revoke(token, id + 1);
+		String successor = refreshTokens.rotate(token).refreshToken();
+
+		refreshTokens.revoke(successor, id);
+		assertThrows(InvalidRefreshTokenException.class, () -> refreshTokens.rotate(successor));
+	}
+
+	@Test
+	void unknownTokenIsRejected() {
+		assertThrows(InvalidRefreshTokenException.class, () -> refreshTokens.rotate("not-a-refresh-token"));
+	}
+
+	private Long superAdminId() {
+		return employeeService.getEmployeeByEmail(superAdminDTO.getUsername()).id();
+	}
+
+}
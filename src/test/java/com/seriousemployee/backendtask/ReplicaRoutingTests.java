@@ -0,0 +1,67 @@
+package com.seriousemployee.backendtask;
+
+import com.seriousemployee.backendtask.config.ReplicaDataSource;
+import com.seriousemployee.backendtask.config.ReplicaHealthMonitor;
+import com.seriousemployee.backendtask.dto.SuperAdminDTO;
+import com.seriousemployee.backendtask.services.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The replica is a second local database standing in for a streaming replica ({@code REPLICA_DATASOURCE_URL},
+ * the primary itself when unset).
+ */
+@SpringBootTest(properties = {
+		"app.datasource.replica.enabled=true",
+		"app.datasource.replica.url=${REPLICA_DATASOURCE_URL:${SPRING_DATASOURCE_URL}}",
+		"app.datasource.replica.username=${REPLICA_DB_USER:${DB_USER}}",
+		"app.datasource.replica.password=${REPLICA_DB_PASSWORD:${DB_PASSWORD}}",
+		"app.datasource.replica.health-check-interval-ms=100"
+})
+class ReplicaRoutingTests {
+
+	@Autowired
+	private EmployeeService service;
+
+	@Autowired
+	private SuperAdminDTO superAdminDTO;
+
+	@Autowired
+	private ReplicaHealthMonitor healthMonitor;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void awaitReplica() throws InterruptedException {
+		for (int i = 0; i < 50 && !healthMonitor.isUsable(); i++) {
+			Thread.sleep(100);
+		}
+		assertTrue(healthMonitor.isUsable());
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplica() {
+		double before = reads("replica");
+		service.getEmployeeByEmail(superAdminDTO.getUsername());
+		assertEquals(before + 1, reads("replica"));
+	}
+
+	@Test
+	void forcedReadsStayOnPrimary() {
+		double before = reads("primary");
+		ReplicaDataSource.onPrimary(() -> service.getEmployeeByEmail(superAdminDTO.getUsername()));
+		assertEquals(before + 1, reads("primary"));
+	}
+
+	private double reads(String target) {
+		return meterRegistry.counter("app.datasource.reads", "target", target).count();
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.seriousemployee.backendtask;
+
+import com.seriousemployee.backendtask.security.TokenBucketRateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTests {
+
+	@Test
+	void burstUpToCapacityThenWaitForRefill() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+		}
+
+		long waitNanos = limiter.tryAcquire("10.0.0.1");
+		// One token a minute, and the bucket is empty
+		assertTrue(waitNanos > TimeUnit.SECONDS.toNanos(59) && waitNanos <= TimeUnit.MINUTES.toNanos(1));
+	}
+
+	@Test
+	void keysHaveTheirOwnBuckets() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1);
+		assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+		assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+
+		assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+		assertEquals(2, limiter.size());
+	}
+
+	@Test
+	void tokensRefillOverTime() throws InterruptedException {
+		// Ten tokens a millisecond
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 600_000);
+		assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+
+		Thread.sleep(5);
+		assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+	}
+
+	@Test
+	void zeroCapacityDisablesTheLimit() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0, 1);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+		}
+		assertEquals(0, limiter.size());
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.seriousemployee.backendtask;
+
+import com.seriousemployee.backendtask.dto.SuperAdminDTO;
+import com.seriousemployee.backendtask.repositories.EmployeeChange;
+import com.seriousemployee.backendtask.security.TokenRevocationRegistry;
+import com.seriousemployee.backendtask.security.TokenVersionRegistry;
+import com.seriousemployee.backendtask.services.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TokenRevocationTests {
+
+	@Autowired
+	private TokenRevocationRegistry revocations;
+
+	@Autowired
+	private TokenVersionRegistry tokenVersions;
+
+	@Autowired
+	private EmployeeService service;
+
+	@Autowired
+	private SuperAdminDTO superAdminDTO;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void revokedTokenIsRejectedUntilItExpires() {
+		String jti = UUID.randomUUID().toString();
+		assertFalse(revocations.isRevoked(jti));
+
+		assertTrue(revocations.revoke(jti, new Date(System.currentTimeMillis() + 60_000)));
+		assertTrue(revocations.isRevoked(jti));
+	}
+
+	@Test
+	void tokensWithoutUsableIdAreNeverRevokedIndividually() {
+		assertFalse(revocations.revoke(null, new Date(System.currentTimeMillis() + 60_000)));
+		assertFalse(revocations.revoke("not-a-uuid", new Date(System.currentTimeMillis() + 60_000)));
+		assertFalse(revocations.isRevoked("not-a-uuid"));
+	}
+
+	@Test
+	void revocationByAnotherInstanceIsPickedUp() {
+		String jti = UUID.randomUUID().toString();
+		assertFalse(revocations.isRevoked(jti));
+
+		// Another instance logged the token out; only the database knows
+		jdbcTemplate.update("insert into token_revocations (jti, expires_at) values (?, ?)",
+				UUID.fromString(jti), new Timestamp(System.currentTimeMillis() + 60_000));
+		revocations.sync();
+
+		assertTrue(revocations.isRevoked(jti));
+	}
+
+	@Test
+	void tokenVersionChangedByAnotherInstanceIsPickedUp() {
+		Long id = service.getEmployeeByEmail(superAdminDTO.getUsername()).id();
+		int tokenVersion = tokenVersion(id);
+		long version = rowVersion(id);
+		assertEquals(TokenVersionRegistry.Status.CURRENT, tokenVersions.check(id, tokenVersion, version));
+
+		// Another instance revoked the employee's tokens; only the database knows
+		jdbcTemplate.update("update employees set token_version = token_version + 1 where id = ?", id);
+		tokenVersions.sync();
+
+		assertEquals(TokenVersionRegistry.Status.REVOKED, tokenVersions.check(id, tokenVersion, version));
+		assertEquals(TokenVersionRegistry.Status.CURRENT, tokenVersions.check(id, tokenVersion + 1, version));
+	}
+
+	@Test
+	void rowVersionChangedByAnotherInstanceLeavesTokensValid() {
+		Long id = service.getEmployeeByEmail(superAdminDTO.getUsername()).id();
+		int tokenVersion = tokenVersion(id);
+		long version = rowVersion(id);
+		assertEquals(TokenVersionRegistry.Status.CURRENT, tokenVersions.check(id, tokenVersion, version));
+
+		// Another instance changed the employee without revoking their tokens
+		jdbcTemplate.update("update employees set version = version + 1 where id = ?", id);
+		tokenVersions.sync();
+
+		assertEquals(TokenVersionRegistry.Status.STALE, tokenVersions.check(id, tokenVersion, version));
+		assertEquals(TokenVersionRegistry.Status.CURRENT, tokenVersions.check(id, tokenVersion, version + 1));
+	}
+
+	@Test
+	void demotingAnEmployeeWhoIsNoAdminChangesNothing() {
+		Long id = jdbcTemplate.queryForObject(
+				"insert into employees (name, email, password, role) values (?, ?, ?, 'USER') returning id",
+				Long.class, "Already User", "already.user@company.com", "not-a-hash");
+		try {
+			EmployeeChange change = service.changeRoles(List.of(id), "USER").get(0);
+
+			assertEquals(EmployeeChange.Outcome.UNCHANGED, change.outcome());
+			assertEquals(0, tokenVersion(id));
+			assertEquals(0, rowVersion(id));
+		}
+		finally {
+			jdbcTemplate.update("delete from employees where id = ?", id);
+		}
+	}
+
+	private int tokenVersion(Long id) {
+		return jdbcTemplate.queryForObject("select token_version from employees where id = ?", Integer.class, id);
+	}
+
+	private long rowVersion(Long id) {
+		return jdbcTemplate.queryForObject("select version from employees where id = ?", Long.class, id);
+	}
+
+}
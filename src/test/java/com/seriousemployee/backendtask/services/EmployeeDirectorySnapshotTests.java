@@ -0,0 +1,75 @@
+package com.seriousemployee.backendtask.services;
+
+import com.seriousemployee.backendtask.repositories.EmployeeSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EmployeeDirectorySnapshotTests {
+	private static final LocalDateTime JANUARY = LocalDateTime.of(2024, 1, 15, 9, 0);
+	private static final LocalDateTime MARCH = LocalDateTime.of(2024, 3, 15, 9, 0);
+	private static final LocalDateTime MAY = LocalDateTime.of(2024, 5, 15, 9, 0);
+
+	private final EmployeeDirectory.Snapshot snapshot = EmployeeDirectory.Snapshot.of(List.of(
+			employee(3L, "ADMIN", MAY, 0),
+			employee(1L, "USER", JANUARY, 0),
+			employee(2L, "USER", MARCH, 0),
+			employee(4L, "USER", MARCH, 0)));
+
+	@Test
+	void findFiltersAndPagesInBothDirections() {
+		assertEquals(List.of(1L, 2L, 4L, 3L), ids(snapshot.find(null, null, null, true, 0, 10)));
+		assertEquals(List.of(3L, 4L), ids(snapshot.find(null, null, null, false, 0, 2)));
+		assertEquals(List.of(2L, 4L), ids(snapshot.find("USER", null, null, true, 1, 10)));
+		assertEquals(List.of(4L, 2L), ids(snapshot.find(null, LocalDate.of(2024, 4, 1), LocalDate.of(2024, 2, 1), false, 0, 10)));
+		assertEquals(List.of(), ids(snapshot.find("SUPERADMIN", null, null, true, 0, 10)));
+	}
+
+	@Test
+	void countMatchesFind() {
+		assertEquals(4, snapshot.count(null, null, null));
+		assertEquals(3, snapshot.count("USER", null, null));
+		assertEquals(1, snapshot.count("USER", LocalDate.of(2024, 2, 1), null));
+		assertEquals(3, snapshot.count(null, null, LocalDate.of(2024, 2, 1)));
+		assertEquals(0, snapshot.count("SUPERADMIN", null, null));
+	}
+
+	@Test
+	void withReplacesNewerVersionsOnly() {
+		EmployeeDirectory.Snapshot promoted = snapshot.with(List.of(employee(2L, "ADMIN", MARCH, 1)));
+		assertEquals(2, promoted.count("ADMIN", null, null));
+
+		// Published out of order: the older version is ignored
+		assertSame(promoted, promoted.with(List.of(employee(2L, "USER", MARCH, 0))));
+		assertEquals(List.of(3L, 2L), ids(promoted.find("ADMIN", null, null, false, 0, 10)));
+	}
+
+	@Test
+	void withoutRemovesAndKeepsDeletedEmployeesOut() {
+		EmployeeDirectory.Snapshot removed = snapshot.without(List.of(2L, 99L));
+		assertEquals(List.of(1L, 4L, 3L), ids(removed.find(null, null, null, true, 0, 10)));
+
+		// An update or insert that committed before the delete but is published after it
+		assertSame(removed, removed.with(List.of(employee(2L, "ADMIN", MARCH, 1), employee(99L, "USER", MAY, 0))));
+		assertEquals(3, removed.count(null, null, null));
+
+		// Tombstones survive a reload
+		EmployeeDirectory.Snapshot reloaded = EmployeeDirectory.Snapshot.of(List.of(employee(1L, "USER", JANUARY, 0)))
+				.withTombstones(removed.tombstonesSince(System.nanoTime() - 1_000_000_000L));
+		assertSame(reloaded, reloaded.with(List.of(employee(2L, "USER", MARCH, 2))));
+	}
+
+	private static EmployeeSummary employee(Long id, String role, LocalDateTime createdAt, long version) {
+		return new EmployeeSummary(id, "Employee " + id, "employee" + id + "@company.com", role, createdAt, version);
+	}
+
+	private static List<Long> ids(List<EmployeeSummary> employees) {
+		return employees.stream().map(EmployeeSummary::id).toList();
+	}
+
+}
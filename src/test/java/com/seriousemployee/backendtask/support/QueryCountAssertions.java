@@ -0,0 +1,46 @@
+package com.seriousemployee.backendtask.support;
+
+import com.seriousemployee.backendtask.config.StatementCounter;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Pins the number of JDBC statements a piece of code may issue, so extra round trips fail the build.
+ * Only statements executed on the calling thread are counted, which covers MockMvc and direct service calls.
+ */
+public final class QueryCountAssertions {
+    private QueryCountAssertions() { }
+
+    public static <T> T assertMaxStatements(long max, ThrowingSupplier<T> action) {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            T result = run(action);
+            if (scope.getCount() > max) {
+                fail("Expected at most " + max + " statements but " + scope.getCount() + " were executed");
+            }
+            return result;
+        }
+    }
+
+    public static <T> T assertStatements(long expected, ThrowingSupplier<T> action) {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            T result = run(action);
+            if (scope.getCount() != expected) {
+                fail("Expected " + expected + " statements but " + scope.getCount() + " were executed");
+            }
+            return result;
+        }
+    }
+
+    private static <T> T run(ThrowingSupplier<T> action) {
+        try {
+            return action.get();
+        }
+        catch (RuntimeException | Error e) {
+            throw e;
+        }
+        catch (Throwable e) {
+            throw new AssertionError("Action under query count failed", e);
+        }
+    }
+}